@@ -1,18 +1,35 @@
 package me.clutchy.hytale.autotrash;
 
+import java.io.IOException;
+
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 
+import com.hypixel.hytale.assetstore.event.LoadedAssetsEvent;
+import com.hypixel.hytale.assetstore.event.RemovedAssetsEvent;
+import com.hypixel.hytale.assetstore.map.DefaultAssetMap;
 import com.hypixel.hytale.component.ComponentType;
 import com.hypixel.hytale.logger.HytaleLogger;
+import com.hypixel.hytale.server.core.asset.type.item.config.Item;
 import com.hypixel.hytale.server.core.event.events.entity.LivingEntityInventoryChangeEvent;
 import com.hypixel.hytale.server.core.plugin.JavaPlugin;
 import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hypixel.hytale.server.core.util.Config;
 
 import me.clutchy.hytale.autotrash.command.BinCommand;
 import me.clutchy.hytale.autotrash.command.TrashCommand;
+import me.clutchy.hytale.autotrash.config.AutoTrashConfig;
+import me.clutchy.hytale.autotrash.config.ConfigWatcher;
+import me.clutchy.hytale.autotrash.config.RuntimeConfig;
+import me.clutchy.hytale.autotrash.rule.ItemCategoryTable;
+import me.clutchy.hytale.autotrash.rule.ItemIdIndex;
+import me.clutchy.hytale.autotrash.rule.ItemSearchIndex;
 import me.clutchy.hytale.autotrash.settings.AutoTrashPlayerSettings;
+import me.clutchy.hytale.autotrash.system.AutoTrashMetrics;
+import me.clutchy.hytale.autotrash.system.AutoTrashPickupSystem;
 import me.clutchy.hytale.autotrash.system.AutoTrashSystem;
+import me.clutchy.hytale.autotrash.system.AutoTrashTickSystem;
+import me.clutchy.hytale.autotrash.system.SettingsChangeSystem;
 
 /**
  * Entrypoint plugin that wires the auto-trash inventory listener.
@@ -23,6 +40,15 @@ public class AutoTrashPlugin extends JavaPlugin {
     /** Logger for plugin lifecycle events. */
     private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
 
+    /** Name of the config file in the plugin data directory, without extension. */
+    private static final String CONFIG_NAME = "AutoTrash";
+
+    /** Server-level plugin configuration. */
+    private final Config<AutoTrashConfig> config;
+
+    /** Watches the config file for hot reloads; null when watching could not be started. */
+    private ConfigWatcher configWatcher;
+
     /** Component type used for player settings. */
     private ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType;
 
@@ -33,6 +59,7 @@ public class AutoTrashPlugin extends JavaPlugin {
      */
     public AutoTrashPlugin(@NonNullDecl JavaPluginInit init) {
         super(init);
+        this.config = withConfig(CONFIG_NAME, AutoTrashConfig.CODEC);
     }
 
     /** Registers the auto-trash inventory listener. */
@@ -41,8 +68,87 @@ public class AutoTrashPlugin extends JavaPlugin {
         LOGGER.atInfo().log("Setting up plugin: AutoTrash");
         this.settingsComponentType = this.getEntityStoreRegistry().registerComponent(AutoTrashPlayerSettings.class, "AutoTrash", AutoTrashPlayerSettings.CODEC);
         AutoTrashSystem.setSettingsComponentType(settingsComponentType);
+        // Persist defaults so the engine can be switched without guessing the key names.
+        config.save();
+        if (config.get().getUnknownEngineName() != null) {
+            LOGGER.atWarning().log("Unknown AutoTrash engine %s, using %s", config.get().getUnknownEngineName(), config.get().getEngine().getConfigName());
+        }
+        RuntimeConfig.publish(RuntimeConfig.compile(config.get(), null, true));
+        RuntimeConfig runtime = RuntimeConfig.current();
+        LOGGER.atInfo().log("AutoTrash engine: %s, global rules: %d", runtime.getEngine().getConfigName(), runtime.getGlobalRules().size());
+        getEntityStoreRegistry().registerSystem(new AutoTrashTickSystem(settingsComponentType));
+        getEntityStoreRegistry().registerSystem(new AutoTrashPickupSystem(settingsComponentType));
+        getEntityStoreRegistry().registerSystem(new SettingsChangeSystem(settingsComponentType));
         getEventRegistry().registerGlobal(LivingEntityInventoryChangeEvent.class, AutoTrashSystem::handleInventoryChange);
+        getEventRegistry().register(LoadedAssetsEvent.class, Item.class, AutoTrashPlugin::onItemsLoaded);
+        getEventRegistry().register(RemovedAssetsEvent.class, Item.class, AutoTrashPlugin::onItemsRemoved);
         getCommandRegistry().registerCommand(new BinCommand());
         getCommandRegistry().registerCommand(new TrashCommand(settingsComponentType));
     }
+
+    /** Builds the item tables from the items loaded before the plugin started and starts watching the config file. */
+    @Override
+    protected void start() {
+        ItemCategoryTable.update(Item.getAssetMap().getAssetMap());
+        ItemIdIndex.rebuild(Item.getAssetMap().getAssetMap().keySet());
+        ItemSearchIndex.rebuild(Item.getAssetMap().getAssetMap());
+        try {
+            this.configWatcher = new ConfigWatcher(getDataDirectory().resolve(CONFIG_NAME + ".json"), this::reloadConfig);
+        } catch (IOException e) {
+            LOGGER.atWarning().withCause(e).log("AutoTrash config hot reload disabled");
+        }
+    }
+
+    /** Stops watching the config file. */
+    @Override
+    protected void shutdown() {
+        if (configWatcher != null) {
+            configWatcher.close();
+            configWatcher = null;
+        }
+    }
+
+    /**
+     * Reloads, validates and publishes the config file; runs on the watcher thread.
+     *
+     * <p>A file that fails to parse or validate is logged and counted, and the previously published config stays in effect.
+     */
+    private void reloadConfig() {
+        long startNanos = System.nanoTime();
+        RuntimeConfig compiled;
+        try {
+            compiled = RuntimeConfig.compile(config.load().join(), RuntimeConfig.current());
+        } catch (RuntimeException e) {
+            AutoTrashMetrics.CONFIG_RELOAD_FAILURES.increment();
+            LOGGER.atWarning().withCause(e).log("AutoTrash config reload failed, keeping the previous config");
+            return;
+        }
+        RuntimeConfig.publish(compiled);
+        long nanos = System.nanoTime() - startNanos;
+        AutoTrashMetrics.recordConfigReload(nanos);
+        LOGGER.atInfo().log("AutoTrash config reloaded in %dus (engine: %s, global rules: %d, max profiles: %d)", nanos / 1_000,
+                compiled.getEngine().getConfigName(), compiled.getGlobalRules().size(), compiled.getMaxProfiles());
+    }
+
+    /**
+     * Refreshes category rows for the item assets that were just loaded or reloaded and rebuilds the item id and search indexes.
+     *
+     * @param event item asset load event
+     */
+    private static void onItemsLoaded(@NonNullDecl LoadedAssetsEvent<String, Item, DefaultAssetMap<String, Item>> event) {
+        ItemCategoryTable.update(event.getLoadedAssets());
+        ItemIdIndex.rebuild(Item.getAssetMap().getAssetMap().keySet());
+        ItemSearchIndex.rebuild(Item.getAssetMap().getAssetMap());
+    }
+
+    /**
+     * Clears category rows for removed item assets and rebuilds the item id and search indexes without them.
+     *
+     * @param event item asset removal event
+     */
+    private static void onItemsRemoved(@NonNullDecl RemovedAssetsEvent<String, Item, DefaultAssetMap<String, Item>> event) {
+        ItemCategoryTable.remove(event.getRemovedAssets());
+        ItemIdIndex.rebuild(Item.getAssetMap().getAssetMap().keySet());
+        ItemSearchIndex.rebuild(Item.getAssetMap().getAssetMap());
+    }
 }
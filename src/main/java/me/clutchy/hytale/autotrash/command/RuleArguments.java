@@ -0,0 +1,97 @@
+package me.clutchy.hytale.autotrash.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import me.clutchy.hytale.autotrash.rule.ItemCategoryTable;
+import me.clutchy.hytale.autotrash.rule.ItemIdIndex;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
+
+/**
+ * Comma-separated rule list given to {@code /trash add} and {@code /trash remove}, sorted by rule kind, plus shared feedback for
+ * unknown item ids.
+ */
+final class RuleArguments {
+
+    /** Most completions or suggestions listed in one message. */
+    private static final int MAX_HINTS = 5;
+
+    /** Exact item ids. */
+    final List<String> exactItems = new ArrayList<>();
+    /** Wildcard patterns. */
+    final List<String> patterns = new ArrayList<>();
+    /** Category and tag rules. */
+    final List<String> categories = new ArrayList<>();
+
+    private RuleArguments() {
+    }
+
+    /**
+     * Splits a comma-separated argument and sorts each rule by kind, ignoring blanks.
+     *
+     * @param argument raw argument such as {@code Ore_Copper,Ore_*_Iron,#Seed}
+     * @return parsed rules
+     */
+    @NonNullDecl
+    static RuleArguments parse(@NonNullDecl String argument) {
+        RuleArguments rules = new RuleArguments();
+        for (String part : argument.split(",")) {
+            String rule = part.trim();
+            if (rule.isEmpty()) {
+                continue;
+            }
+            if (ItemCategoryTable.isCategoryRule(rule)) {
+                rules.categories.add(rule);
+            } else if (ItemMatcher.isPattern(rule)) {
+                rules.patterns.add(rule);
+            } else {
+                rules.exactItems.add(rule);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Describes an unknown item id with close matches or completions from the item id index.
+     *
+     * @param itemId unknown item id
+     * @return feedback message
+     */
+    @NonNullDecl
+    static String unknownItemMessage(@NonNullDecl String itemId) {
+        int completions = ItemIdIndex.countPrefix(itemId);
+        if (completions > 0) {
+            String shown = String.join(", ", ItemIdIndex.complete(itemId, MAX_HINTS));
+            String more = completions > MAX_HINTS ? " (+" + (completions - MAX_HINTS) + " more)" : "";
+            return "Unknown item id: " + itemId + ". Items starting with it: " + shown + more;
+        }
+        List<String> suggestions = ItemIdIndex.suggest(itemId, MAX_HINTS);
+        if (suggestions.isEmpty()) {
+            return "Unknown item id: " + itemId;
+        }
+        return "Unknown item id: " + itemId + ". Did you mean " + String.join(", ", suggestions) + "?";
+    }
+
+    /**
+     * Returns the number of parsed rules.
+     *
+     * @return rule count
+     */
+    int size() {
+        return exactItems.size() + patterns.size() + categories.size();
+    }
+
+    /**
+     * Returns the single parsed rule when exactly one was given.
+     *
+     * @return the rule, or null when there are zero or several
+     */
+    String single() {
+        if (size() != 1) {
+            return null;
+        }
+        return !exactItems.isEmpty() ? exactItems.get(0) : !patterns.isEmpty() ? patterns.get(0) : categories.get(0);
+    }
+}
@@ -1,5 +1,10 @@
 package me.clutchy.hytale.autotrash.command;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
 
 import com.hypixel.hytale.component.ComponentType;
@@ -13,10 +18,12 @@ import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.modules.item.ItemModule;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
+import me.clutchy.hytale.autotrash.rule.ItemCategoryTable;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
 import me.clutchy.hytale.autotrash.settings.AutoTrashPlayerSettings;
 
 /**
- * Adds an item to the active auto-trash profile.
+ * Adds one or more comma-separated items, patterns or categories to the active auto-trash profile.
  */
 public final class TrashAddCommand extends CommandBase {
 
@@ -31,10 +38,10 @@ public final class TrashAddCommand extends CommandBase {
      * @param settingsComponentType component type for player settings
      */
     public TrashAddCommand(@NonNullDecl ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType) {
-        super("add", "Add an item to the auto-trash list.");
+        super("add", "Add items to the auto-trash list.");
         this.setPermissionGroup(GameMode.Adventure);
         this.settingsComponentType = settingsComponentType;
-        this.itemArg = withRequiredArg("item", "Item id", ArgTypes.STRING);
+        this.itemArg = withRequiredArg("item", "Item id, pattern using * or #category; separate several with commas", ArgTypes.STRING);
     }
 
     /**
@@ -49,13 +56,25 @@ public final class TrashAddCommand extends CommandBase {
             return;
         }
 
-        String itemId = context.get(itemArg);
-        if (itemId == null || itemId.isBlank()) {
+        String argument = context.get(itemArg);
+        RuleArguments rules = argument == null ? null : RuleArguments.parse(argument);
+        if (rules == null || rules.size() == 0) {
             context.sendMessage(Message.raw("Provide an item id to add."));
             return;
         }
-        if (!ItemModule.exists(itemId)) {
-            context.sendMessage(Message.raw("Unknown item id: " + itemId));
+        if (rules.size() > 1) {
+            addAll(context, rules);
+            return;
+        }
+        String itemId = rules.single();
+        boolean category = ItemCategoryTable.isCategoryRule(itemId);
+        if (category && !ItemCategoryTable.isKnown(itemId)) {
+            context.sendMessage(Message.raw("Unknown item category or tag: " + itemId));
+            return;
+        }
+        boolean pattern = !category && ItemMatcher.isPattern(itemId);
+        if (!category && !pattern && !ItemModule.exists(itemId)) {
+            context.sendMessage(Message.raw(RuleArguments.unknownItemMessage(itemId)));
             return;
         }
 
@@ -65,10 +84,77 @@ public final class TrashAddCommand extends CommandBase {
             context.sendMessage(Message.raw("Unable to update AutoTrash right now."));
             return;
         }
+        if (settings.isActiveProfileReadOnly()) {
+            context.sendMessage(Message.raw("Your AutoTrash profile could not be read, so it cannot be changed until the stored data is repaired."));
+            return;
+        }
+        if (category) {
+            if (!settings.addCategory(itemId)) {
+                context.sendMessage(Message.raw("That category is already in your auto-trash list."));
+                return;
+            }
+            context.sendMessage(Message.raw("Added category to auto-trash: " + itemId));
+            return;
+        }
+        if (pattern) {
+            if (!settings.addPattern(itemId)) {
+                context.sendMessage(Message.raw("That pattern is already in your auto-trash list."));
+                return;
+            }
+            context.sendMessage(Message.raw("Added pattern to auto-trash: " + itemId));
+            return;
+        }
         if (!settings.addExactItem(itemId)) {
             context.sendMessage(Message.raw("That item is already in your auto-trash list."));
             return;
         }
         context.sendMessage(Message.raw("Added to auto-trash: " + itemId));
     }
+
+    /**
+     * Validates several rules and adds the valid ones in one batch.
+     *
+     * @param context command context
+     * @param rules parsed rules
+     */
+    private void addAll(@NonNullDecl CommandContext context, @NonNullDecl RuleArguments rules) {
+        List<String> unknown = new ArrayList<>();
+        for (String category : rules.categories) {
+            if (!ItemCategoryTable.isKnown(category)) {
+                unknown.add(category);
+            }
+        }
+        for (String itemId : rules.exactItems) {
+            if (!ItemModule.exists(itemId)) {
+                unknown.add(itemId);
+            }
+        }
+        Set<String> rejected = new HashSet<>(unknown);
+        rules.categories.removeAll(rejected);
+        rules.exactItems.removeAll(rejected);
+        if (!unknown.isEmpty()) {
+            context.sendMessage(Message.raw("Skipped unknown items or categories: " + String.join(", ", unknown)));
+            for (String itemId : unknown) {
+                if (!ItemCategoryTable.isCategoryRule(itemId)) {
+                    context.sendMessage(Message.raw(RuleArguments.unknownItemMessage(itemId)));
+                }
+            }
+        }
+        if (rules.size() == 0) {
+            return;
+        }
+
+        Player player = context.senderAs(Player.class);
+        AutoTrashPlayerSettings settings = AutoTrashPlayerSettings.get(player, settingsComponentType);
+        if (settings == null) {
+            context.sendMessage(Message.raw("Unable to update AutoTrash right now."));
+            return;
+        }
+        if (settings.isActiveProfileReadOnly()) {
+            context.sendMessage(Message.raw("Your AutoTrash profile could not be read, so it cannot be changed until the stored data is repaired."));
+            return;
+        }
+        int added = settings.addRules(rules.exactItems, rules.patterns, rules.categories);
+        context.sendMessage(Message.raw("Added " + added + " of " + rules.size() + " rules to auto-trash; the rest were already listed."));
+    }
 }
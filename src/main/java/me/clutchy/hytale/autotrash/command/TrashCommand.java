@@ -34,10 +34,14 @@ public final class TrashCommand extends CommandBase {
         this.settingsComponentType = settingsComponentType;
         addSubCommand(new TrashAddCommand(settingsComponentType));
         addSubCommand(new TrashEnableCommand(settingsComponentType));
+        addSubCommand(new TrashKeepCommand(settingsComponentType));
         addSubCommand(new TrashNotifyCommand(settingsComponentType));
         addSubCommand(new TrashOnCommand(settingsComponentType));
         addSubCommand(new TrashOffCommand(settingsComponentType));
+        addSubCommand(new TrashPurgeCommand());
         addSubCommand(new TrashRemoveCommand(settingsComponentType));
+        addSubCommand(new TrashScanCommand(settingsComponentType));
+        addSubCommand(new TrashStatsCommand());
     }
 
     /**
@@ -0,0 +1,97 @@
+package me.clutchy.hytale.autotrash.command;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.OptionalArg;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.item.ItemModule;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import me.clutchy.hytale.autotrash.settings.AutoTrashPlayerSettings;
+
+/**
+ * Keeps up to a quantity of an item and trashes the excess.
+ */
+public final class TrashKeepCommand extends CommandBase {
+
+    /** Component type used for player settings. */
+    private final ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType;
+    /** Required item id argument. */
+    private final RequiredArg<String> itemArg;
+    /** Optional quantity argument; omitted to remove the limit. */
+    private final OptionalArg<Integer> quantityArg;
+
+    /**
+     * Creates the command instance.
+     *
+     * @param settingsComponentType component type for player settings
+     */
+    public TrashKeepCommand(@NonNullDecl ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType) {
+        super("keep", "Keep up to a quantity of an item and trash the rest.");
+        this.setPermissionGroup(GameMode.Adventure);
+        this.settingsComponentType = settingsComponentType;
+        this.itemArg = withRequiredArg("item", "Item id", ArgTypes.STRING);
+        this.quantityArg = withOptionalArg("quantity", "Quantity to keep, omit to remove the limit", ArgTypes.INTEGER);
+    }
+
+    /**
+     * Executes the command synchronously on the server thread.
+     *
+     * @param context command context
+     */
+    @Override
+    protected void executeSync(@NonNullDecl CommandContext context) {
+        if (!context.isPlayer()) {
+            context.sendMessage(Message.raw("Only players can update AutoTrash."));
+            return;
+        }
+
+        String itemId = context.get(itemArg);
+        if (itemId == null || itemId.isBlank()) {
+            context.sendMessage(Message.raw("Provide an item id to keep."));
+            return;
+        }
+
+        Player player = context.senderAs(Player.class);
+        AutoTrashPlayerSettings settings = AutoTrashPlayerSettings.get(player, settingsComponentType);
+        if (settings == null) {
+            context.sendMessage(Message.raw("Unable to update AutoTrash right now."));
+            return;
+        }
+        if (settings.isActiveProfileReadOnly()) {
+            context.sendMessage(Message.raw("Your AutoTrash profile could not be read, so it cannot be changed until the stored data is repaired."));
+            return;
+        }
+
+        if (!context.provided(quantityArg)) {
+            if (!settings.removeKeepLimit(itemId)) {
+                context.sendMessage(Message.raw("That item has no keep limit."));
+                return;
+            }
+            context.sendMessage(Message.raw("Removed keep limit for: " + itemId));
+            return;
+        }
+
+        int quantity = context.get(quantityArg);
+        if (quantity < 0) {
+            context.sendMessage(Message.raw("Keep quantity cannot be negative."));
+            return;
+        }
+        if (!ItemModule.exists(itemId)) {
+            context.sendMessage(Message.raw("Unknown item id: " + itemId));
+            return;
+        }
+        if (!settings.setKeepLimit(itemId, quantity)) {
+            context.sendMessage(Message.raw("That item already keeps " + quantity + "."));
+            return;
+        }
+        context.sendMessage(Message.raw("Keeping " + quantity + " of " + itemId + ", the rest is trashed."));
+    }
+}
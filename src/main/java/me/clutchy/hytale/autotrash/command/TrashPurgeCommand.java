@@ -0,0 +1,74 @@
+package me.clutchy.hytale.autotrash.command;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredArg;
+import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+import com.hypixel.hytale.server.core.modules.item.ItemModule;
+
+import me.clutchy.hytale.autotrash.rule.ItemCategoryTable;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
+import me.clutchy.hytale.autotrash.system.AdminPurge;
+
+/**
+ * Purges an item, pattern or category from every online player's inventory.
+ */
+public final class TrashPurgeCommand extends CommandBase {
+
+    /** Permission node required to run the purge; no game mode grants it by default. */
+    public static final String PERMISSION = "me.clutchy.hytale.autotrash.command.trash.purge";
+
+    /** Required rule argument. */
+    private final RequiredArg<String> ruleArg;
+
+    /**
+     * Creates the command instance.
+     */
+    public TrashPurgeCommand() {
+        super("purge", "Purge an item from every online player's inventory.");
+        this.requirePermission(PERMISSION);
+        this.ruleArg = withRequiredArg("item", "Item id, pattern using * or #category", ArgTypes.STRING);
+    }
+
+    /**
+     * Executes the command synchronously on the server thread.
+     *
+     * @param context command context
+     */
+    @Override
+    protected void executeSync(@NonNullDecl CommandContext context) {
+        String rule = context.get(ruleArg);
+        if (rule == null || rule.isBlank()) {
+            context.sendMessage(Message.raw("Provide an item id to purge."));
+            return;
+        }
+
+        String[] single = {rule};
+        ItemMatcher matcher;
+        if (ItemCategoryTable.isCategoryRule(rule)) {
+            if (!ItemCategoryTable.isKnown(rule)) {
+                context.sendMessage(Message.raw("Unknown item category or tag: " + rule));
+                return;
+            }
+            matcher = ItemMatcher.compile(null, null, single, null);
+        } else if (ItemMatcher.isPattern(rule)) {
+            matcher = ItemMatcher.compile(null, single, null, null);
+        } else {
+            if (!ItemModule.exists(rule)) {
+                context.sendMessage(Message.raw("Unknown item id: " + rule));
+                return;
+            }
+            matcher = ItemMatcher.compile(single);
+        }
+
+        int worlds = AdminPurge.start(matcher, rule, message -> context.sendMessage(Message.raw(message)));
+        if (worlds == 0) {
+            context.sendMessage(Message.raw("No worlds are loaded to purge."));
+            return;
+        }
+        context.sendMessage(Message.raw("Purging " + rule + " across " + worlds + " worlds."));
+    }
+}
@@ -10,12 +10,15 @@ import com.hypixel.hytale.server.core.command.system.arguments.system.RequiredAr
 import com.hypixel.hytale.server.core.command.system.arguments.types.ArgTypes;
 import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
 import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.modules.item.ItemModule;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
+import me.clutchy.hytale.autotrash.rule.ItemCategoryTable;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
 import me.clutchy.hytale.autotrash.settings.AutoTrashPlayerSettings;
 
 /**
- * Removes an item from the active auto-trash profile.
+ * Removes one or more comma-separated items, patterns or categories from the active auto-trash profile.
  */
 public final class TrashRemoveCommand extends CommandBase {
 
@@ -30,10 +33,10 @@ public final class TrashRemoveCommand extends CommandBase {
      * @param settingsComponentType component type for player settings
      */
     public TrashRemoveCommand(@NonNullDecl ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType) {
-        super("remove", "Remove an item from the auto-trash list.");
+        super("remove", "Remove items from the auto-trash list.");
         this.setPermissionGroup(GameMode.Adventure);
         this.settingsComponentType = settingsComponentType;
-        this.itemArg = withRequiredArg("item", "Item id", ArgTypes.STRING);
+        this.itemArg = withRequiredArg("item", "Item id, pattern using * or #category; separate several with commas", ArgTypes.STRING);
     }
 
     /**
@@ -48,8 +51,9 @@ public final class TrashRemoveCommand extends CommandBase {
             return;
         }
 
-        String itemId = context.get(itemArg);
-        if (itemId == null || itemId.isBlank()) {
+        String argument = context.get(itemArg);
+        RuleArguments rules = argument == null ? null : RuleArguments.parse(argument);
+        if (rules == null || rules.size() == 0) {
             context.sendMessage(Message.raw("Provide an item id to remove."));
             return;
         }
@@ -60,8 +64,36 @@ public final class TrashRemoveCommand extends CommandBase {
             context.sendMessage(Message.raw("Unable to update AutoTrash right now."));
             return;
         }
+        if (settings.isActiveProfileReadOnly()) {
+            context.sendMessage(Message.raw("Your AutoTrash profile could not be read, so it cannot be changed until the stored data is repaired."));
+            return;
+        }
+        if (rules.size() > 1) {
+            int removed = settings.removeRules(rules.exactItems, rules.patterns, rules.categories);
+            context.sendMessage(Message.raw("Removed " + removed + " of " + rules.size() + " rules from auto-trash; the rest were not listed."));
+            return;
+        }
+        String itemId = rules.single();
+        if (ItemCategoryTable.isCategoryRule(itemId)) {
+            if (!settings.removeCategory(itemId)) {
+                context.sendMessage(Message.raw("That category is not in your auto-trash list."));
+                return;
+            }
+            context.sendMessage(Message.raw("Removed category from auto-trash: " + itemId));
+            return;
+        }
+        if (ItemMatcher.isPattern(itemId)) {
+            if (!settings.removePattern(itemId)) {
+                context.sendMessage(Message.raw("That pattern is not in your auto-trash list."));
+                return;
+            }
+            context.sendMessage(Message.raw("Removed pattern from auto-trash: " + itemId));
+            return;
+        }
         if (!settings.removeExactItem(itemId)) {
-            context.sendMessage(Message.raw("That item is not in your auto-trash list."));
+            // A typo is the likeliest reason, so point at the registered id instead of only refusing.
+            context.sendMessage(Message.raw(ItemModule.exists(itemId) ? "That item is not in your auto-trash list."
+                    : RuleArguments.unknownItemMessage(itemId)));
             return;
         }
         context.sendMessage(Message.raw("Removed from auto-trash: " + itemId));
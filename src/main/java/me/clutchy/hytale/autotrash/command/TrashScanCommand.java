@@ -0,0 +1,77 @@
+package me.clutchy.hytale.autotrash.command;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.arguments.system.FlagArg;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import me.clutchy.hytale.autotrash.settings.AutoTrashPlayerSettings;
+import me.clutchy.hytale.autotrash.system.AutoTrashSystem;
+import me.clutchy.hytale.autotrash.system.InventoryScan;
+
+/**
+ * Removes everything the active profile matches from the player's inventory, or reports it with {@code --dry-run}.
+ */
+public final class TrashScanCommand extends CommandBase {
+
+    /** Component type used for player settings. */
+    private final ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType;
+    /** Flag that reports matches without removing them. */
+    private final FlagArg dryRunArg;
+
+    /**
+     * Creates the command instance.
+     *
+     * @param settingsComponentType component type for player settings
+     */
+    public TrashScanCommand(@NonNullDecl ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType) {
+        super("scan", "Trash everything in your inventory that matches the active profile.");
+        this.setPermissionGroup(GameMode.Adventure);
+        this.settingsComponentType = settingsComponentType;
+        this.dryRunArg = withFlagArg("dry-run", "Only report what would be trashed");
+    }
+
+    /**
+     * Executes the command synchronously on the server thread.
+     *
+     * @param context command context
+     */
+    @Override
+    protected void executeSync(@NonNullDecl CommandContext context) {
+        if (!context.isPlayer()) {
+            context.sendMessage(Message.raw("Only players can scan their inventory."));
+            return;
+        }
+
+        Player player = context.senderAs(Player.class);
+        if (player.getReference() == null) {
+            context.sendMessage(Message.raw("Unable to scan your inventory right now."));
+            return;
+        }
+        boolean dryRun = context.provided(dryRunArg);
+
+        // Inventory access belongs on the world thread.
+        player.getReference().getStore().getExternalData().getWorld().execute(() -> {
+            AutoTrashPlayerSettings settings = AutoTrashPlayerSettings.get(player, settingsComponentType);
+            if (settings == null) {
+                context.sendMessage(Message.raw("Unable to scan your inventory right now."));
+                return;
+            }
+
+            InventoryScan.Result result = AutoTrashSystem.scanInventory(player, settings, dryRun);
+            if (result.isEmpty()) {
+                context.sendMessage(Message.raw("No inventory items matched the active profile."));
+                return;
+            }
+            String verb = dryRun ? "Would remove " : "Removed ";
+            context.sendMessage(Message.raw(verb + result.getTotalQuantity() + " items from " + result.getSlotCount() + " slots: "
+                    + result.describeEntries()));
+        });
+    }
+}
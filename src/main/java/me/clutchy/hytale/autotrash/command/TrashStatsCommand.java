@@ -0,0 +1,36 @@
+package me.clutchy.hytale.autotrash.command;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.protocol.GameMode;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.CommandBase;
+
+import me.clutchy.hytale.autotrash.settings.ProfileRulesPool;
+import me.clutchy.hytale.autotrash.system.AutoTrashMetrics;
+
+/**
+ * Prints auto-trash listener counters and the profile sharing heap report.
+ */
+public final class TrashStatsCommand extends CommandBase {
+
+    /**
+     * Creates the command instance.
+     */
+    public TrashStatsCommand() {
+        super("stats", "Show auto-trash listener counters.");
+        this.setPermissionGroup(GameMode.Creative);
+    }
+
+    /**
+     * Executes the command synchronously on the server thread.
+     *
+     * @param context command context
+     */
+    @Override
+    protected void executeSync(@NonNullDecl CommandContext context) {
+        context.sendMessage(Message.raw("AutoTrash " + AutoTrashMetrics.summary()));
+        context.sendMessage(Message.raw("AutoTrash " + ProfileRulesPool.report()));
+    }
+}
@@ -0,0 +1,252 @@
+package me.clutchy.hytale.autotrash.config;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+
+/**
+ * Server-level plugin configuration.
+ *
+ * <p>Loaded from the plugin data directory and serialized through {@link #CODEC}. Runtime code reads the compiled {@link RuntimeConfig}
+ * instead, which is rebuilt whenever the file changes.
+ */
+public final class AutoTrashConfig {
+
+    /** Default window over which trashed items are merged into one notification per item. */
+    public static final long DEFAULT_NOTIFICATION_WINDOW_MILLIS = 1_000L;
+    /** Default maximum notification packets per player per second. */
+    public static final int DEFAULT_NOTIFICATION_MAX_PER_SECOND = 4;
+    /** Default time an admin purge may spend per world per tick. */
+    public static final long DEFAULT_PURGE_TICK_BUDGET_MILLIS = 5L;
+    /** Default maximum number of profiles per player. */
+    public static final int DEFAULT_MAX_PROFILES = 50;
+
+    /** Codec used to serialize the plugin configuration. */
+    public static final BuilderCodec<AutoTrashConfig> CODEC = BuilderCodec.builder(AutoTrashConfig.class, AutoTrashConfig::new)
+            .append(new KeyedCodec<>("Engine", Codec.STRING), AutoTrashConfig::setEngineName, AutoTrashConfig::getEngineName)
+            .documentation("Processing engine: Event trashes inline in each inventory transaction, Tick batches changes once per tick. "
+                    + "Players without AutoTrash settings are only subject to global rules and always use Event.").add()
+            .append(new KeyedCodec<>("InterceptPickup", Codec.BOOLEAN), AutoTrashConfig::setInterceptPickup, AutoTrashConfig::isInterceptPickup)
+            .documentation("Trash matching interactive (use-key) item pickups before they enter the inventory; automatic pickups still use the "
+                    + "inventory listener.").add()
+            .append(new KeyedCodec<>("NotificationWindowMs", Codec.LONG), AutoTrashConfig::setNotificationWindowMillis, AutoTrashConfig::getNotificationWindowMillis)
+            .documentation("Window in milliseconds over which trashed items are merged into one notification per item.").add()
+            .append(new KeyedCodec<>("NotificationMaxPerSecond", Codec.INTEGER), AutoTrashConfig::setNotificationMaxPerSecond, AutoTrashConfig::getNotificationMaxPerSecond)
+            .documentation("Maximum trash notification packets sent to a player per second.").add()
+            .append(new KeyedCodec<>("PurgeTickBudgetMs", Codec.LONG), AutoTrashConfig::setPurgeTickBudgetMillis, AutoTrashConfig::getPurgeTickBudgetMillis)
+            .documentation("Time in milliseconds an admin purge may spend per world per tick before resuming next tick.").add()
+            .append(new KeyedCodec<>("MaxProfiles", Codec.INTEGER), AutoTrashConfig::setMaxProfiles, AutoTrashConfig::getMaxProfiles)
+            .documentation("Maximum number of profiles each player may create.").add()
+            .append(new KeyedCodec<>("GlobalRules", Codec.STRING_ARRAY), AutoTrashConfig::setGlobalRules, AutoTrashConfig::getGlobalRules)
+            .documentation("Rules trashed for every player: exact item ids, patterns using * and #category rules.").add()
+            .build();
+
+    private Engine engine = Engine.EVENT;
+    private boolean interceptPickup;
+    private long notificationWindowMillis = DEFAULT_NOTIFICATION_WINDOW_MILLIS;
+    private int notificationMaxPerSecond = DEFAULT_NOTIFICATION_MAX_PER_SECOND;
+    private long purgeTickBudgetMillis = DEFAULT_PURGE_TICK_BUDGET_MILLIS;
+    private int maxProfiles = DEFAULT_MAX_PROFILES;
+    private String unknownEngineName;
+    private String[] globalRules = new String[0];
+
+    /** Creates a configuration with defaults. */
+    public AutoTrashConfig() {
+    }
+
+    /**
+     * Returns the selected processing engine.
+     *
+     * @return processing engine
+     */
+    @NonNullDecl
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Returns whether matching interactive pickups are trashed before entering the inventory.
+     *
+     * @return true when pickups are intercepted
+     */
+    public boolean isInterceptPickup() {
+        return interceptPickup;
+    }
+
+    /**
+     * Sets whether matching interactive pickups are trashed before entering the inventory.
+     *
+     * @param interceptPickup true to intercept pickups
+     */
+    private void setInterceptPickup(boolean interceptPickup) {
+        this.interceptPickup = interceptPickup;
+    }
+
+    /**
+     * Returns the notification aggregation window.
+     *
+     * @return window in milliseconds
+     */
+    public long getNotificationWindowMillis() {
+        return notificationWindowMillis;
+    }
+
+    /**
+     * Sets the notification aggregation window, clamping negatives to zero.
+     *
+     * @param notificationWindowMillis window in milliseconds
+     */
+    private void setNotificationWindowMillis(long notificationWindowMillis) {
+        this.notificationWindowMillis = Math.max(0L, notificationWindowMillis);
+    }
+
+    /**
+     * Returns the per-player notification packet cap.
+     *
+     * @return packets per second
+     */
+    public int getNotificationMaxPerSecond() {
+        return notificationMaxPerSecond;
+    }
+
+    /**
+     * Sets the per-player notification packet cap, keeping at least one packet per second.
+     *
+     * @param notificationMaxPerSecond packets per second
+     */
+    private void setNotificationMaxPerSecond(int notificationMaxPerSecond) {
+        this.notificationMaxPerSecond = Math.max(1, notificationMaxPerSecond);
+    }
+
+    /**
+     * Returns the time an admin purge may spend per world per tick.
+     *
+     * @return budget in milliseconds
+     */
+    public long getPurgeTickBudgetMillis() {
+        return purgeTickBudgetMillis;
+    }
+
+    /**
+     * Sets the admin purge tick budget, keeping at least one millisecond.
+     *
+     * @param purgeTickBudgetMillis budget in milliseconds
+     */
+    private void setPurgeTickBudgetMillis(long purgeTickBudgetMillis) {
+        this.purgeTickBudgetMillis = Math.max(1L, purgeTickBudgetMillis);
+    }
+
+    /**
+     * Returns the maximum number of profiles per player.
+     *
+     * @return profile limit
+     */
+    public int getMaxProfiles() {
+        return maxProfiles;
+    }
+
+    /**
+     * Sets the maximum number of profiles per player, keeping at least one.
+     *
+     * @param maxProfiles profile limit
+     */
+    private void setMaxProfiles(int maxProfiles) {
+        this.maxProfiles = Math.max(1, maxProfiles);
+    }
+
+    /**
+     * Returns the engine name from the file when it did not match any engine.
+     *
+     * @return unrecognized engine name, or null when the name was valid or absent
+     */
+    public String getUnknownEngineName() {
+        return unknownEngineName;
+    }
+
+    /**
+     * Returns the rules enforced for every player.
+     *
+     * @return global rules
+     */
+    @NonNullDecl
+    public String[] getGlobalRules() {
+        return globalRules;
+    }
+
+    /**
+     * Sets the rules enforced for every player.
+     *
+     * @param globalRules global rules
+     */
+    private void setGlobalRules(String[] globalRules) {
+        this.globalRules = globalRules == null ? new String[0] : globalRules;
+    }
+
+    /**
+     * Returns the processing engine name for serialization.
+     *
+     * @return engine name
+     */
+    private String getEngineName() {
+        return engine.getConfigName();
+    }
+
+    /**
+     * Parses the processing engine name, keeping the default for unknown values.
+     *
+     * @param engineName engine name
+     */
+    private void setEngineName(String engineName) {
+        this.engine = Engine.fromConfigName(engineName, Engine.EVENT);
+        boolean known = engineName == null || engine.getConfigName().equalsIgnoreCase(engineName.trim());
+        this.unknownEngineName = known ? null : engineName;
+    }
+
+    /**
+     * Strategy used to process inventory changes.
+     */
+    public enum Engine {
+        /** Evaluate and trash synchronously inside each inventory change event. */
+        EVENT("Event"),
+        /** Mark players dirty from events and process each player once per tick. */
+        TICK("Tick");
+
+        private final String configName;
+
+        Engine(@NonNullDecl String configName) {
+            this.configName = configName;
+        }
+
+        /**
+         * Returns the name used in the configuration file.
+         *
+         * @return configuration name
+         */
+        @NonNullDecl
+        public String getConfigName() {
+            return configName;
+        }
+
+        /**
+         * Resolves an engine from its configuration name, ignoring case.
+         *
+         * @param configName configuration name
+         * @param fallback engine returned for unknown names
+         * @return resolved engine
+         */
+        @NonNullDecl
+        public static Engine fromConfigName(String configName, @NonNullDecl Engine fallback) {
+            if (configName == null) {
+                return fallback;
+            }
+            for (Engine engine : values()) {
+                if (engine.configName.equalsIgnoreCase(configName.trim())) {
+                    return engine;
+                }
+            }
+            return fallback;
+        }
+    }
+}
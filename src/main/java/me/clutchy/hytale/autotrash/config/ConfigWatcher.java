@@ -0,0 +1,99 @@
+package me.clutchy.hytale.autotrash.config;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.logger.HytaleLogger;
+
+/**
+ * Watches the plugin config file and runs a reload callback when it changes.
+ *
+ * <p>Runs on its own daemon thread so parsing and compiling never touch a world thread. Editors often write a file in several steps, so
+ * events are debounced and a burst of writes triggers a single reload.
+ */
+public final class ConfigWatcher implements AutoCloseable {
+
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    /** Quiet period after the last change before reloading. */
+    private static final long DEBOUNCE_MILLIS = 250L;
+
+    private final Path file;
+    private final Runnable reload;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    /**
+     * Starts watching a file.
+     *
+     * @param file config file to watch
+     * @param reload callback run on the watcher thread after the file changes
+     * @throws IOException when the directory cannot be watched
+     */
+    public ConfigWatcher(@NonNullDecl Path file, @NonNullDecl Runnable reload) throws IOException {
+        this.file = file.getFileName();
+        this.reload = reload;
+        this.watchService = file.getFileSystem().newWatchService();
+        file.toAbsolutePath().getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "AutoTrash-ConfigWatcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (!drain(watchService.take())) {
+                    continue;
+                }
+                // Swallow the rest of the burst before reloading once.
+                WatchKey next;
+                while ((next = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    drain(next);
+                }
+                reload.run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // Closed on shutdown.
+        } catch (RuntimeException e) {
+            LOGGER.atWarning().withCause(e).log("AutoTrash config watcher stopped");
+        }
+    }
+
+    /**
+     * Consumes a key's events and re-arms it.
+     *
+     * @param key signalled watch key
+     * @return true when one of the events was for the watched file
+     */
+    private boolean drain(@NonNullDecl WatchKey key) {
+        boolean matched = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.context() instanceof Path changed && changed.equals(file)) {
+                matched = true;
+            }
+        }
+        key.reset();
+        return matched;
+    }
+
+    /** Stops watching. */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOGGER.atWarning().withCause(e).log("Failed to close AutoTrash config watcher");
+        }
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,160 @@
+package me.clutchy.hytale.autotrash.config;
+
+import java.util.Arrays;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
+
+/**
+ * Immutable, validated and compiled view of {@link AutoTrashConfig} read by the hot path.
+ *
+ * <p>A new view is built off-thread whenever the config file changes and published with one volatile write, so readers never lock and
+ * never observe a half-applied reload. The compiled global rule layer is reused when the rules did not change, so player matchers only
+ * re-merge after an actual rule change.
+ */
+public final class RuntimeConfig {
+
+    private static volatile RuntimeConfig current = compile(new AutoTrashConfig(), null);
+
+    private final AutoTrashConfig.Engine engine;
+    private final boolean interceptPickup;
+    private final long notificationWindowMillis;
+    private final int notificationMaxPerSecond;
+    private final long purgeTickBudgetMillis;
+    private final int maxProfiles;
+    private final String[] globalRuleSource;
+    private final ItemMatcher globalRules;
+
+    private RuntimeConfig(@NonNullDecl AutoTrashConfig config, @NonNullDecl String[] globalRuleSource, @NonNullDecl ItemMatcher globalRules) {
+        this.engine = config.getEngine();
+        this.interceptPickup = config.isInterceptPickup();
+        this.notificationWindowMillis = config.getNotificationWindowMillis();
+        this.notificationMaxPerSecond = config.getNotificationMaxPerSecond();
+        this.purgeTickBudgetMillis = config.getPurgeTickBudgetMillis();
+        this.maxProfiles = config.getMaxProfiles();
+        this.globalRuleSource = globalRuleSource;
+        this.globalRules = globalRules;
+    }
+
+    /**
+     * Returns the published view.
+     *
+     * @return current runtime configuration
+     */
+    @NonNullDecl
+    public static RuntimeConfig current() {
+        return current;
+    }
+
+    /**
+     * Publishes a new view with a single reference swap.
+     *
+     * @param config compiled view to publish
+     */
+    public static void publish(@NonNullDecl RuntimeConfig config) {
+        current = config;
+    }
+
+    /**
+     * Validates and compiles a loaded configuration, rejecting an unknown engine name.
+     *
+     * @param config loaded configuration
+     * @param previous currently published view whose global layer may be reused, or null
+     * @return compiled view
+     * @throws IllegalArgumentException when the configuration is invalid
+     */
+    @NonNullDecl
+    public static RuntimeConfig compile(@NonNullDecl AutoTrashConfig config, RuntimeConfig previous) {
+        return compile(config, previous, false);
+    }
+
+    /**
+     * Validates and compiles a loaded configuration.
+     *
+     * <p>Hot reloads are strict, so a typo keeps the previous config. Startup is lenient: there is no previous config to keep, so an
+     * unknown engine name runs with the default engine the config already fell back to.
+     *
+     * @param config loaded configuration
+     * @param previous currently published view whose global layer may be reused, or null
+     * @param lenient true to accept an unknown engine name and use the default engine
+     * @return compiled view
+     * @throws IllegalArgumentException when the configuration is invalid
+     */
+    @NonNullDecl
+    public static RuntimeConfig compile(@NonNullDecl AutoTrashConfig config, RuntimeConfig previous, boolean lenient) {
+        if (!lenient && config.getUnknownEngineName() != null) {
+            throw new IllegalArgumentException("Unknown Engine: " + config.getUnknownEngineName());
+        }
+        String[] source = config.getGlobalRules().clone();
+        if (previous != null && Arrays.equals(previous.globalRuleSource, source)) {
+            return new RuntimeConfig(config, previous.globalRuleSource, previous.globalRules);
+        }
+        return new RuntimeConfig(config, source, ItemMatcher.compileRules(source));
+    }
+
+    /**
+     * Returns the engine used to process inventory changes.
+     *
+     * @return processing engine
+     */
+    @NonNullDecl
+    public AutoTrashConfig.Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Returns whether matching interactive pickups are consumed before reaching the inventory.
+     *
+     * @return true when pickups are intercepted
+     */
+    public boolean isInterceptPickup() {
+        return interceptPickup;
+    }
+
+    /**
+     * Returns the window over which trashed items are merged into one notification per item.
+     *
+     * @return window in milliseconds
+     */
+    public long getNotificationWindowMillis() {
+        return notificationWindowMillis;
+    }
+
+    /**
+     * Returns the maximum notification packets per player per second.
+     *
+     * @return packets per second
+     */
+    public int getNotificationMaxPerSecond() {
+        return notificationMaxPerSecond;
+    }
+
+    /**
+     * Returns the time an admin purge may spend per world per tick.
+     *
+     * @return budget in milliseconds
+     */
+    public long getPurgeTickBudgetMillis() {
+        return purgeTickBudgetMillis;
+    }
+
+    /**
+     * Returns the maximum number of profiles per player.
+     *
+     * @return profile limit
+     */
+    public int getMaxProfiles() {
+        return maxProfiles;
+    }
+
+    /**
+     * Returns the compiled rules enforced for every player.
+     *
+     * @return global rule layer, {@link ItemMatcher#EMPTY} when none are configured
+     */
+    @NonNullDecl
+    public ItemMatcher getGlobalRules() {
+        return globalRules;
+    }
+}
@@ -0,0 +1,221 @@
+package me.clutchy.hytale.autotrash.rule;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.server.core.asset.type.item.config.Item;
+
+/**
+ * Precomputed item index to category bitset table.
+ *
+ * <p>Each item asset category and tag value is assigned a stable bit, and each item index maps to the bitset of everything it belongs to.
+ * Category rules resolve to a mask once at compile time, so matching an item is one AND per 64 categories. The table is rebuilt only
+ * for the items an asset load touches, rows of removed items are cleared, and every change is published copy-on-write, so readers
+ * never lock.
+ */
+public final class ItemCategoryTable {
+
+    /** Prefix that marks a rule as a category or tag rule. */
+    public static final char RULE_PREFIX = '#';
+
+    private static final long[] NO_BITS = new long[0];
+
+    private static final ConcurrentHashMap<String, Integer> BITS = new ConcurrentHashMap<>();
+    /** Categories seen on at least one loaded item asset. */
+    private static final Set<String> LOADED = ConcurrentHashMap.newKeySet();
+    private static volatile long[][] rows = new long[0][];
+
+    private ItemCategoryTable() {
+    }
+
+    /**
+     * Returns whether a rule string is a category rule.
+     *
+     * @param rule rule string
+     * @return true when the rule starts with {@link #RULE_PREFIX}
+     */
+    public static boolean isCategoryRule(String rule) {
+        return rule != null && rule.length() > 1 && rule.charAt(0) == RULE_PREFIX;
+    }
+
+    /**
+     * Returns whether any loaded item belongs to the category named by a rule.
+     *
+     * @param rule category rule, with or without the prefix
+     * @return true when the category has been seen on an item asset
+     */
+    public static boolean isKnown(@NonNullDecl String rule) {
+        return LOADED.contains(normalize(rule));
+    }
+
+    /**
+     * Resolves category rules into a mask over category bits.
+     *
+     * <p>Unknown categories are assigned a bit anyway so a later asset load that introduces them starts matching without recompiling.
+     *
+     * @param categories category rules, with or without the prefix
+     * @return category mask, empty when there are no rules
+     */
+    @NonNullDecl
+    public static long[] maskOf(String[] categories) {
+        if (categories == null || categories.length == 0) {
+            return NO_BITS;
+        }
+        long[] mask = NO_BITS;
+        for (String category : categories) {
+            if (category == null || category.isBlank()) {
+                continue;
+            }
+            int bit = bitOf(normalize(category));
+            int word = bit >>> 6;
+            if (word >= mask.length) {
+                mask = Arrays.copyOf(mask, word + 1);
+            }
+            mask[word] |= 1L << bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Checks whether an item belongs to any category in the mask.
+     *
+     * @param index item index from {@link ItemIndex}
+     * @param mask mask from {@link #maskOf(String[])}
+     * @return true when the item has a masked category
+     */
+    public static boolean matches(int index, @NonNullDecl long[] mask) {
+        long[][] current = rows;
+        if (index < 0 || index >= current.length) {
+            return false;
+        }
+        long[] row = current[index];
+        if (row == null) {
+            return false;
+        }
+        int words = Math.min(row.length, mask.length);
+        for (int i = 0; i < words; i++) {
+            if ((row[i] & mask[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rebuilds the rows for the given item assets, leaving every other item untouched.
+     *
+     * @param items loaded item assets keyed by id
+     */
+    public static synchronized void update(@NonNullDecl Map<String, Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        long[][] current = rows;
+        long[][] updated = Arrays.copyOf(current, Math.max(current.length, ItemIndex.size()));
+        for (Map.Entry<String, Item> entry : items.entrySet()) {
+            int index = ItemIndex.indexOf(entry.getKey());
+            if (index >= updated.length) {
+                updated = Arrays.copyOf(updated, Math.max(index + 1, updated.length * 2));
+            }
+            updated[index] = rowOf(entry.getValue());
+        }
+        rows = updated;
+    }
+
+    /**
+     * Clears the rows of removed item assets so category rules stop matching them.
+     *
+     * @param itemIds ids of the removed item assets
+     */
+    public static synchronized void remove(@NonNullDecl Collection<String> itemIds) {
+        long[][] current = rows;
+        long[][] updated = null;
+        for (String itemId : itemIds) {
+            int index = ItemIndex.find(itemId);
+            if (index < 0 || index >= current.length || current[index] == null) {
+                continue;
+            }
+            if (updated == null) {
+                updated = Arrays.copyOf(current, current.length);
+            }
+            updated[index] = null;
+        }
+        if (updated != null) {
+            rows = updated;
+        }
+    }
+
+    /**
+     * Builds the category bitset for one item from its categories and tags.
+     *
+     * @param item item asset
+     * @return category bitset
+     */
+    @NonNullDecl
+    private static long[] rowOf(Item item) {
+        if (item == null) {
+            return NO_BITS;
+        }
+        long[] row = NO_BITS;
+        String[] categories = item.getCategories();
+        if (categories != null) {
+            for (String category : categories) {
+                row = set(row, category);
+            }
+        }
+        Map<String, String[]> tags = item.getData() == null ? null : item.getData().getRawTags();
+        if (tags != null) {
+            for (Map.Entry<String, String[]> tag : tags.entrySet()) {
+                if (tag.getValue() == null) {
+                    continue;
+                }
+                for (String value : tag.getValue()) {
+                    // Tags are keyed by type, so "Family=Cobblestone" style rules stay unambiguous across tag types.
+                    row = set(row, tag.getKey() + "=" + value);
+                    row = set(row, value);
+                }
+            }
+        }
+        return row;
+    }
+
+    private static long[] set(long[] row, String category) {
+        if (category == null || category.isBlank()) {
+            return row;
+        }
+        String normalized = normalize(category);
+        LOADED.add(normalized);
+        int bit = bitOf(normalized);
+        int word = bit >>> 6;
+        if (word >= row.length) {
+            row = Arrays.copyOf(row, word + 1);
+        }
+        row[word] |= 1L << bit;
+        return row;
+    }
+
+    private static int bitOf(@NonNullDecl String category) {
+        Integer bit = BITS.get(category);
+        if (bit != null) {
+            return bit;
+        }
+        synchronized (BITS) {
+            return BITS.computeIfAbsent(category, ignored -> BITS.size());
+        }
+    }
+
+    @NonNullDecl
+    private static String normalize(@NonNullDecl String category) {
+        String trimmed = category.trim();
+        if (!trimmed.isEmpty() && trimmed.charAt(0) == RULE_PREFIX) {
+            trimmed = trimmed.substring(1);
+        }
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+}
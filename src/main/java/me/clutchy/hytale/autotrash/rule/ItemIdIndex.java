@@ -0,0 +1,215 @@
+package me.clutchy.hytale.autotrash.rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * Sorted, case-insensitive index of registered item ids for prefix completion and "did you mean" suggestions.
+ *
+ * <p>The index is rebuilt from the item asset map when assets load and published as one immutable snapshot, so lookups never lock.
+ * Prefix queries are two binary searches. Suggestions only rank a bounded window of ids that share the longest matching prefix with
+ * the input, so neither query scans the registry.
+ */
+public final class ItemIdIndex {
+
+    /** Most ids ranked by edit distance per suggestion query. */
+    private static final int SUGGESTION_WINDOW = 256;
+
+    private static volatile Snapshot snapshot = new Snapshot(new String[0], new String[0]);
+
+    private ItemIdIndex() {
+    }
+
+    /**
+     * Rebuilds the index from the full set of registered item ids.
+     *
+     * @param itemIds registered item ids
+     */
+    public static void rebuild(@NonNullDecl Collection<String> itemIds) {
+        String[] ids = itemIds.stream().filter(id -> id != null && !id.isBlank()).distinct().toArray(String[]::new);
+        Arrays.sort(ids, Comparator.comparing(id -> id.toLowerCase(Locale.ROOT)));
+        String[] keys = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            keys[i] = ids[i].toLowerCase(Locale.ROOT);
+        }
+        snapshot = new Snapshot(keys, ids);
+    }
+
+    /**
+     * Returns the number of indexed ids.
+     *
+     * @return indexed id count
+     */
+    public static int size() {
+        return snapshot.ids.length;
+    }
+
+    /**
+     * Returns ids starting with a prefix, ignoring case, in sorted order.
+     *
+     * @param prefix typed prefix
+     * @param limit maximum ids to return
+     * @return matching ids
+     */
+    @NonNullDecl
+    public static List<String> complete(@NonNullDecl String prefix, int limit) {
+        Snapshot current = snapshot;
+        String key = prefix.toLowerCase(Locale.ROOT);
+        int from = current.lowerBound(key);
+        int to = current.prefixEnd(key, from);
+        List<String> matches = new ArrayList<>(Math.min(limit, to - from));
+        for (int i = from; i < to && matches.size() < limit; i++) {
+            matches.add(current.ids[i]);
+        }
+        return matches;
+    }
+
+    /**
+     * Counts ids starting with a prefix, ignoring case.
+     *
+     * @param prefix typed prefix
+     * @return number of matching ids
+     */
+    public static int countPrefix(@NonNullDecl String prefix) {
+        Snapshot current = snapshot;
+        String key = prefix.toLowerCase(Locale.ROOT);
+        int from = current.lowerBound(key);
+        return current.prefixEnd(key, from) - from;
+    }
+
+    /**
+     * Suggests registered ids close to an unknown input, closest first.
+     *
+     * <p>Candidates come from the longest prefix of the input that still matches some id, narrowed to a window around where the full
+     * input would sort, and are ranked by edit distance.
+     *
+     * @param input unknown id
+     * @param limit maximum suggestions
+     * @return suggested ids
+     */
+    @NonNullDecl
+    public static List<String> suggest(@NonNullDecl String input, int limit) {
+        Snapshot current = snapshot;
+        String key = input.toLowerCase(Locale.ROOT);
+        if (current.keys.length == 0 || key.isEmpty()) {
+            return List.of();
+        }
+        int from = 0;
+        int to = 0;
+        for (int length = key.length(); length > 0 && to - from == 0; length--) {
+            String prefix = key.substring(0, length);
+            from = current.lowerBound(prefix);
+            to = current.prefixEnd(prefix, from);
+        }
+        if (to - from == 0) {
+            return List.of();
+        }
+        if (to - from > SUGGESTION_WINDOW) {
+            int center = Math.min(Math.max(current.lowerBound(key), from), to);
+            from = Math.max(from, center - SUGGESTION_WINDOW / 2);
+            to = Math.min(to, from + SUGGESTION_WINDOW);
+        }
+
+        int maxDistance = Math.max(2, key.length() / 3);
+        int[] distances = new int[to - from];
+        Integer[] order = new Integer[to - from];
+        for (int i = from; i < to; i++) {
+            distances[i - from] = distance(key, current.keys[i], maxDistance);
+            order[i - from] = i - from;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(distances[a], distances[b]));
+        List<String> suggestions = new ArrayList<>(limit);
+        for (Integer offset : order) {
+            if (suggestions.size() >= limit || distances[offset] > maxDistance) {
+                break;
+            }
+            suggestions.add(current.ids[from + offset]);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Computes the Levenshtein distance, stopping early once every path exceeds a bound.
+     *
+     * @param a first key
+     * @param b second key
+     * @param bound largest distance of interest
+     * @return distance, or {@code bound + 1} when it exceeds the bound
+     */
+    private static int distance(@NonNullDecl String a, @NonNullDecl String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            row[0] = i;
+            int best = row[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                row[j] = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                best = Math.min(best, row[j]);
+            }
+            if (best > bound) {
+                return bound + 1;
+            }
+            int[] swap = previous;
+            previous = row;
+            row = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Immutable sorted keys with their original-case ids.
+     */
+    private static final class Snapshot {
+
+        private final String[] keys;
+        private final String[] ids;
+
+        private Snapshot(@NonNullDecl String[] keys, @NonNullDecl String[] ids) {
+            this.keys = keys;
+            this.ids = ids;
+        }
+
+        /** Returns the first position whose key is not less than {@code key}. */
+        private int lowerBound(@NonNullDecl String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** Returns the end of the run of keys starting at {@code from} that begin with {@code prefix}. */
+        private int prefixEnd(@NonNullDecl String prefix, int from) {
+            int low = from;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].startsWith(prefix)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package me.clutchy.hytale.autotrash.rule;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * Dense integer index over item ids.
+ *
+ * <p>Item assets are keyed by string rather than exposed through an indexed lookup table, so ids are assigned a stable index the first
+ * time a rule or the inventory listener references them. Indices are never reused for the lifetime of the server, which keeps compiled
+ * bitsets and memo tables valid across asset reloads.
+ */
+public final class ItemIndex {
+
+    /** Index returned for ids that have never been referenced. */
+    public static final int UNKNOWN = -1;
+
+    private static final ConcurrentHashMap<String, Integer> INDICES = new ConcurrentHashMap<>();
+    private static volatile String[] ids = new String[256];
+
+    private ItemIndex() {
+    }
+
+    /**
+     * Returns the index for an item id, assigning a new one when missing.
+     *
+     * @param itemId item id
+     * @return dense item index
+     */
+    public static int indexOf(@NonNullDecl String itemId) {
+        Integer index = INDICES.get(itemId);
+        if (index != null) {
+            return index;
+        }
+        synchronized (INDICES) {
+            index = INDICES.get(itemId);
+            if (index != null) {
+                return index;
+            }
+            int assigned = INDICES.size();
+            String[] current = ids;
+            if (assigned >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[assigned] = itemId;
+            // Publish the id before the index so idOf never sees an assigned index without its id.
+            ids = current;
+            INDICES.put(itemId, assigned);
+            return assigned;
+        }
+    }
+
+    /**
+     * Returns the index for an item id without assigning one.
+     *
+     * @param itemId item id
+     * @return dense item index or {@link #UNKNOWN}
+     */
+    public static int find(String itemId) {
+        if (itemId == null) {
+            return UNKNOWN;
+        }
+        Integer index = INDICES.get(itemId);
+        return index == null ? UNKNOWN : index;
+    }
+
+    /**
+     * Returns the item id assigned to an index.
+     *
+     * @param index dense item index
+     * @return item id or null when unassigned
+     */
+    public static String idOf(int index) {
+        String[] current = ids;
+        return index < 0 || index >= current.length ? null : current[index];
+    }
+
+    /**
+     * Returns the number of assigned indices.
+     *
+     * @return index count
+     */
+    public static int size() {
+        return INDICES.size();
+    }
+}
@@ -0,0 +1,380 @@
+package me.clutchy.hytale.autotrash.rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+
+/**
+ * Compiled, immutable lookup over a profile's trash rules.
+ *
+ * <p>Exact ids compile to a bitset over {@link ItemIndex} indices, so matching a stack is one index lookup and one bit test. Wildcard
+ * patterns compile into a single {@link PatternTrie}, which holds patterns only; the result for each item index is memoized, so
+ * repeated pickups of the same item stay O(1). Category rules compile to a mask over {@link ItemCategoryTable} bits and cost one AND.
+ * Keep-N rules compile to a limit table by item index; a kept item matches so it is evaluated, and callers trim it to its limit.
+ */
+public final class ItemMatcher {
+
+    /** Keep limit returned for items without a keep rule. */
+    public static final int NO_LIMIT = -1;
+
+    /** Matcher that never matches. */
+    public static final ItemMatcher EMPTY = new ItemMatcher(new long[0], 0, null, 0, new long[0], 0, new int[0], 0, null);
+
+    private static final byte MEMO_UNKNOWN = 0;
+    private static final byte MEMO_MISS = 1;
+    private static final byte MEMO_HIT = 2;
+
+    private final long[] words;
+    private final int size;
+    private final PatternTrie trie;
+    private final int patternCount;
+    private final long[] categoryMask;
+    private final int categoryCount;
+    /** Quantity to keep per item index, {@link #NO_LIMIT} when the item has no keep rule. */
+    private final int[] keepLimits;
+    private final int keepCount;
+    /** Enforced layer merged into this matcher, whose matches override keep rules; null when nothing is enforced. */
+    private final ItemMatcher enforced;
+    /** Memoized pattern results per item index; byte writes are atomic, so racing world threads can only recompute. */
+    private volatile byte[] memo;
+
+    private ItemMatcher(@NonNullDecl long[] words, int size, PatternTrie trie, int patternCount, @NonNullDecl long[] categoryMask,
+            int categoryCount, @NonNullDecl int[] keepLimits, int keepCount, ItemMatcher enforced) {
+        this.words = words;
+        this.size = size;
+        this.trie = trie;
+        this.patternCount = patternCount;
+        this.categoryMask = categoryMask;
+        this.categoryCount = categoryCount;
+        this.keepLimits = keepLimits;
+        this.keepCount = keepCount;
+        this.enforced = enforced;
+        this.memo = trie == null ? null : new byte[Math.max(64, ItemIndex.size())];
+    }
+
+    /**
+     * Compiles a matcher from exact item ids, skipping blank entries.
+     *
+     * @param exactItems exact item ids
+     * @return compiled matcher
+     */
+    @NonNullDecl
+    public static ItemMatcher compile(String[] exactItems) {
+        return compile(exactItems, null, null, null);
+    }
+
+    /**
+     * Compiles a matcher from exact item ids, wildcard patterns and category rules, skipping blank entries.
+     *
+     * @param exactItems exact item ids
+     * @param patterns glob patterns using {@code *}
+     * @param categories category or tag rules
+     * @param keepLimits quantity to keep per item id, excess is trashed
+     * @return compiled matcher
+     */
+    @NonNullDecl
+    public static ItemMatcher compile(String[] exactItems, String[] patterns, String[] categories, Map<String, Integer> keepLimits) {
+        long[] words = new long[0];
+        int size = 0;
+        List<String> patternRules = new ArrayList<>();
+        if (exactItems != null) {
+            for (String itemId : exactItems) {
+                if (itemId == null || itemId.isBlank()) {
+                    continue;
+                }
+                int index = ItemIndex.indexOf(itemId);
+                int word = index >>> 6;
+                if (word >= words.length) {
+                    words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+                }
+                long bit = 1L << index;
+                if ((words[word] & bit) == 0) {
+                    words[word] |= bit;
+                    size++;
+                }
+            }
+        }
+        int patternCount = 0;
+        if (patterns != null) {
+            for (String pattern : patterns) {
+                if (pattern != null && !pattern.isBlank()) {
+                    patternRules.add(pattern);
+                    patternCount++;
+                }
+            }
+        }
+        int categoryCount = 0;
+        if (categories != null) {
+            for (String category : categories) {
+                if (category != null && !category.isBlank()) {
+                    categoryCount++;
+                }
+            }
+        }
+        int[] limits = new int[0];
+        int keepCount = 0;
+        if (keepLimits != null) {
+            for (Map.Entry<String, Integer> entry : keepLimits.entrySet()) {
+                if (entry.getKey() == null || entry.getKey().isBlank() || entry.getValue() == null || entry.getValue() < 0) {
+                    continue;
+                }
+                int index = ItemIndex.indexOf(entry.getKey());
+                if (index >= limits.length) {
+                    int previous = limits.length;
+                    limits = Arrays.copyOf(limits, Math.max(index + 1, previous * 2));
+                    Arrays.fill(limits, previous, limits.length, NO_LIMIT);
+                }
+                if (limits[index] == NO_LIMIT) {
+                    keepCount++;
+                }
+                limits[index] = entry.getValue();
+            }
+        }
+        if (size == 0 && patternCount == 0 && categoryCount == 0 && keepCount == 0) {
+            return EMPTY;
+        }
+        PatternTrie trie = patternCount == 0 ? null : PatternTrie.compile(patternRules);
+        return new ItemMatcher(words, size, trie, patternCount, ItemCategoryTable.maskOf(categories), categoryCount, limits, keepCount, null);
+    }
+
+    /**
+     * Compiles a mixed rule list, sorting each entry into exact ids, wildcard patterns or category rules.
+     *
+     * @param rules exact ids, {@code *} patterns and {@code #} category rules
+     * @return compiled matcher
+     */
+    @NonNullDecl
+    public static ItemMatcher compileRules(String[] rules) {
+        if (rules == null || rules.length == 0) {
+            return EMPTY;
+        }
+        List<String> exactItems = new ArrayList<>();
+        List<String> patterns = new ArrayList<>();
+        List<String> categories = new ArrayList<>();
+        for (String rule : rules) {
+            if (rule == null || rule.isBlank()) {
+                continue;
+            }
+            String trimmed = rule.trim();
+            if (ItemCategoryTable.isCategoryRule(trimmed)) {
+                categories.add(trimmed);
+            } else if (isPattern(trimmed)) {
+                patterns.add(trimmed);
+            } else {
+                exactItems.add(trimmed);
+            }
+        }
+        return compile(exactItems.toArray(new String[0]), patterns.toArray(new String[0]), categories.toArray(new String[0]), null);
+    }
+
+    /**
+     * Merges an enforced rule layer into a profile matcher, so both are checked in one lookup.
+     *
+     * <p>Exact ids and category masks are OR-ed and patterns share one trie. An item the enforced layer matches is always trashed in
+     * full, even when the profile keeps some of it.
+     *
+     * @param profile profile matcher
+     * @param enforced enforced layer without keep rules
+     * @return merged matcher
+     */
+    @NonNullDecl
+    public static ItemMatcher merge(@NonNullDecl ItemMatcher profile, @NonNullDecl ItemMatcher enforced) {
+        if (enforced.isEmpty()) {
+            return profile;
+        }
+        if (profile.isEmpty()) {
+            return enforced;
+        }
+        long[] words = or(profile.words, enforced.words);
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        PatternTrie trie = PatternTrie.merge(profile.trie, enforced.trie);
+        return new ItemMatcher(words, size, trie, profile.patternCount + enforced.patternCount, or(profile.categoryMask, enforced.categoryMask),
+                profile.categoryCount + enforced.categoryCount, profile.keepLimits, profile.keepCount, profile.keepCount > 0 ? enforced : null);
+    }
+
+    @NonNullDecl
+    private static long[] or(@NonNullDecl long[] first, @NonNullDecl long[] second) {
+        long[] result = Arrays.copyOf(first, Math.max(first.length, second.length));
+        for (int i = 0; i < second.length; i++) {
+            result[i] |= second[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns whether a rule string is a wildcard pattern rather than an exact id.
+     *
+     * @param rule rule string
+     * @return true when the rule contains {@code *}
+     */
+    public static boolean isPattern(String rule) {
+        return PatternTrie.isPattern(rule);
+    }
+
+    /**
+     * Checks whether the given stack matches the compiled rules.
+     *
+     * @param itemStack stack to check
+     * @return true if the stack should be auto-trashed
+     */
+    public boolean matches(ItemStack itemStack) {
+        if (itemStack == null || ItemStack.isEmpty(itemStack)) {
+            return false;
+        }
+        return matches(itemStack.getItemId());
+    }
+
+    /**
+     * Checks whether the given item id matches the compiled rules.
+     *
+     * @param itemId item id to check
+     * @return true if the id should be auto-trashed
+     */
+    public boolean matches(String itemId) {
+        if (itemId == null || isEmpty()) {
+            return false;
+        }
+        int index = ItemIndex.find(itemId);
+        if (index != ItemIndex.UNKNOWN) {
+            return matches(index);
+        }
+        // An id the index has never seen can only match a pattern; walk the trie without memoizing rather than assigning an index.
+        return trie != null && trie.matches(itemId);
+    }
+
+    /**
+     * Returns the index of an item id when it matches the compiled rules.
+     *
+     * <p>Known ids are looked up without assigning anything. An id the index has never seen can only match a pattern, and is given an
+     * index only when it does, so a non-matching id leaves the index untouched.
+     *
+     * @param itemId item id to check
+     * @return item index from {@link ItemIndex}, or {@link ItemIndex#UNKNOWN} when the id does not match
+     */
+    public int matchingIndex(String itemId) {
+        if (itemId == null || isEmpty()) {
+            return ItemIndex.UNKNOWN;
+        }
+        int index = ItemIndex.find(itemId);
+        if (index != ItemIndex.UNKNOWN) {
+            return matches(index) ? index : ItemIndex.UNKNOWN;
+        }
+        return trie != null && trie.matches(itemId) ? ItemIndex.indexOf(itemId) : ItemIndex.UNKNOWN;
+    }
+
+    /**
+     * Checks whether the given item id is one of the exact ids, ignoring patterns.
+     *
+     * @param itemId item id to check
+     * @return true if the id is listed exactly
+     */
+    public boolean matchesExact(String itemId) {
+        int index = ItemIndex.find(itemId);
+        if (index < 0) {
+            return false;
+        }
+        int word = index >>> 6;
+        return word < words.length && (words[word] & (1L << index)) != 0;
+    }
+
+    /**
+     * Checks whether the given item index matches the compiled rules.
+     *
+     * @param index item index from {@link ItemIndex}
+     * @return true if the index should be auto-trashed
+     */
+    public boolean matches(int index) {
+        if (index < 0) {
+            return false;
+        }
+        if (keepCount > 0 && keepLimit(index) != NO_LIMIT) {
+            return true;
+        }
+        int word = index >>> 6;
+        if (word < words.length && (words[word] & (1L << index)) != 0) {
+            return true;
+        }
+        if (categoryCount > 0 && ItemCategoryTable.matches(index, categoryMask)) {
+            return true;
+        }
+        return trie != null && matchesPattern(index);
+    }
+
+    /**
+     * Returns the quantity of an item to keep before the excess is trashed.
+     *
+     * <p>A keep rule takes precedence over the profile's other rules for the same item, but never over a merged enforced layer.
+     *
+     * @param index item index from {@link ItemIndex}
+     * @return quantity to keep, or {@link #NO_LIMIT} when the item has no keep rule
+     */
+    public int keepLimit(int index) {
+        int limit = index >= 0 && index < keepLimits.length ? keepLimits[index] : NO_LIMIT;
+        if (limit != NO_LIMIT && enforced != null && enforced.matches(index)) {
+            return NO_LIMIT;
+        }
+        return limit;
+    }
+
+    /**
+     * Returns whether any keep-N rule is compiled.
+     *
+     * @return true when callers must track item totals
+     */
+    public boolean hasKeepRules() {
+        return keepCount > 0;
+    }
+
+    /**
+     * Resolves a pattern match through the memo table, walking the trie on the first lookup of an index.
+     *
+     * @param index item index
+     * @return true when a pattern matches the item
+     */
+    private boolean matchesPattern(int index) {
+        byte[] table = memo;
+        if (index < table.length) {
+            byte cached = table[index];
+            if (cached != MEMO_UNKNOWN) {
+                return cached == MEMO_HIT;
+            }
+        }
+        String itemId = ItemIndex.idOf(index);
+        if (itemId == null) {
+            return false;
+        }
+        boolean matched = trie.matches(itemId);
+        if (index >= table.length) {
+            table = Arrays.copyOf(table, Math.max(index + 1, Math.max(ItemIndex.size(), table.length * 2)));
+            memo = table;
+        }
+        table[index] = matched ? MEMO_HIT : MEMO_MISS;
+        return matched;
+    }
+
+    /**
+     * Returns whether the matcher has no rules.
+     *
+     * @return true when nothing can match
+     */
+    public boolean isEmpty() {
+        return size == 0 && patternCount == 0 && categoryCount == 0 && keepCount == 0;
+    }
+
+    /**
+     * Returns the number of compiled rules.
+     *
+     * @return rule count
+     */
+    public int size() {
+        return size + patternCount + categoryCount + keepCount;
+    }
+}
@@ -0,0 +1,259 @@
+package me.clutchy.hytale.autotrash.rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.server.core.asset.type.item.config.Item;
+import com.hypixel.hytale.server.core.modules.i18n.I18nModule;
+
+/**
+ * N-gram index over item ids and translated item names for the configuration page search box.
+ *
+ * <p>Each item gets a search text made of its id and its translated name, split into words. Every word contributes its 1, 2 and
+ * 3-character grams to a posting list of item ordinals. A query is answered from the rarest gram among its words and each candidate is
+ * verified with a substring check, stopping as soon as the requested page is full. The work per query is bounded by the rarest posting
+ * list and the page size rather than by the registry size. The index is rebuilt when item assets load and published as one immutable
+ * snapshot, so lookups never lock.
+ */
+public final class ItemSearchIndex {
+
+    /** Longest gram stored in the posting lists. */
+    private static final int MAX_GRAM = 3;
+    /** Language used for translated item names. */
+    private static final String NAME_LANGUAGE = "en-US";
+
+    private static volatile Snapshot snapshot = new Snapshot(new String[0], new String[0], Map.of());
+
+    private ItemSearchIndex() {
+    }
+
+    /**
+     * Rebuilds the index from every registered item.
+     *
+     * @param items registered item assets keyed by id
+     */
+    public static void rebuild(@NonNullDecl Map<String, Item> items) {
+        String[] ids = items.keySet().stream().filter(id -> id != null && !id.isBlank()).toArray(String[]::new);
+        Arrays.sort(ids, Comparator.comparing(id -> id.toLowerCase(Locale.ROOT)));
+        String[] texts = new String[ids.length];
+        Map<Long, Postings> building = new HashMap<>();
+        for (int item = 0; item < ids.length; item++) {
+            String text = normalize(ids[item] + " " + nameOf(items.get(ids[item])));
+            texts[item] = text;
+            for (String word : text.split(" ")) {
+                for (int length = 1; length <= Math.min(MAX_GRAM, word.length()); length++) {
+                    for (int start = 0; start + length <= word.length(); start++) {
+                        building.computeIfAbsent(gramKey(word, start, length), ignored -> new Postings()).add(item);
+                    }
+                }
+            }
+        }
+        Map<Long, int[]> postings = new HashMap<>(building.size() * 2);
+        for (Map.Entry<Long, Postings> entry : building.entrySet()) {
+            postings.put(entry.getKey(), entry.getValue().toArray());
+        }
+        snapshot = new Snapshot(ids, texts, postings);
+    }
+
+    /**
+     * Returns the number of indexed items.
+     *
+     * @return indexed item count
+     */
+    public static int size() {
+        return snapshot.ids.length;
+    }
+
+    /**
+     * Finds items whose id or translated name contains every word of a query, ignoring case, in id order.
+     *
+     * @param query search text
+     * @param offset matches to skip
+     * @param limit maximum matches to return
+     * @return one page of matches
+     */
+    @NonNullDecl
+    public static Page search(String query, int offset, int limit) {
+        Snapshot current = snapshot;
+        String normalized = query == null ? "" : normalize(query);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Page.EMPTY;
+        }
+        String[] words = normalized.split(" ");
+        int[] candidates = null;
+        for (String word : words) {
+            int length = Math.min(MAX_GRAM, word.length());
+            for (int start = 0; start + length <= word.length(); start++) {
+                int[] list = current.postings.get(gramKey(word, start, length));
+                if (list == null) {
+                    return Page.EMPTY;
+                }
+                if (candidates == null || list.length < candidates.length) {
+                    candidates = list;
+                }
+            }
+        }
+
+        List<String> matches = new ArrayList<>(limit);
+        int skipped = 0;
+        for (int item : candidates) {
+            if (!containsAll(current.texts[item], words)) {
+                continue;
+            }
+            if (skipped < Math.max(0, offset)) {
+                skipped++;
+                continue;
+            }
+            if (matches.size() == limit) {
+                return new Page(matches, true);
+            }
+            matches.add(current.ids[item]);
+        }
+        return new Page(matches, false);
+    }
+
+    private static boolean containsAll(@NonNullDecl String text, @NonNullDecl String[] words) {
+        for (String word : words) {
+            if (!text.contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the translated name of an item, or an empty string when it has none.
+     *
+     * @param item item asset
+     * @return translated name
+     */
+    @NonNullDecl
+    private static String nameOf(Item item) {
+        if (item == null || item.getTranslationKey() == null) {
+            return "";
+        }
+        String name = I18nModule.get().getMessage(NAME_LANGUAGE, item.getTranslationKey());
+        return name == null ? "" : name;
+    }
+
+    /**
+     * Lowercases text and turns every run of separators into one space, so {@code Ore_Copper} and {@code ore copper} search alike.
+     *
+     * @param text raw text
+     * @return normalized words separated by single spaces
+     */
+    @NonNullDecl
+    private static String normalize(@NonNullDecl String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean separator = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                builder.append(Character.toLowerCase(c));
+                separator = false;
+            } else if (!separator) {
+                builder.append(' ');
+                separator = true;
+            }
+        }
+        int end = builder.length();
+        if (end > 0 && builder.charAt(end - 1) == ' ') {
+            builder.setLength(end - 1);
+        }
+        return builder.toString();
+    }
+
+    /** Packs up to {@link #MAX_GRAM} characters into one key; characters are never zero after normalizing, so lengths never collide. */
+    private static long gramKey(@NonNullDecl String word, int start, int length) {
+        long key = 0L;
+        for (int i = start; i < start + length; i++) {
+            key = key << 16 | word.charAt(i);
+        }
+        return key;
+    }
+
+    /**
+     * One page of search matches.
+     */
+    public static final class Page {
+
+        /** Page with no matches. */
+        public static final Page EMPTY = new Page(List.of(), false);
+
+        private final List<String> itemIds;
+        private final boolean hasMore;
+
+        private Page(@NonNullDecl List<String> itemIds, boolean hasMore) {
+            this.itemIds = Collections.unmodifiableList(itemIds);
+            this.hasMore = hasMore;
+        }
+
+        /**
+         * Returns the matching item ids on this page.
+         *
+         * @return item ids in id order
+         */
+        @NonNullDecl
+        public List<String> getItemIds() {
+            return itemIds;
+        }
+
+        /**
+         * Returns whether more matches follow this page.
+         *
+         * @return true when a next page exists
+         */
+        public boolean hasMore() {
+            return hasMore;
+        }
+    }
+
+    /**
+     * Growable, ascending posting list used while building.
+     */
+    private static final class Postings {
+
+        private int[] items = new int[4];
+        private int size;
+
+        private void add(int item) {
+            // Items are added in ordinal order, so a repeat is always the last entry.
+            if (size > 0 && items[size - 1] == item) {
+                return;
+            }
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = item;
+        }
+
+        @NonNullDecl
+        private int[] toArray() {
+            return Arrays.copyOf(items, size);
+        }
+    }
+
+    /**
+     * Immutable ids, search texts and gram posting lists.
+     */
+    private static final class Snapshot {
+
+        private final String[] ids;
+        private final String[] texts;
+        private final Map<Long, int[]> postings;
+
+        private Snapshot(@NonNullDecl String[] ids, @NonNullDecl String[] texts, @NonNullDecl Map<Long, int[]> postings) {
+            this.ids = ids;
+            this.texts = texts;
+            this.postings = postings;
+        }
+    }
+}
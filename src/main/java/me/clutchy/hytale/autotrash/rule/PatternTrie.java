@@ -0,0 +1,232 @@
+package me.clutchy.hytale.autotrash.rule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * Trie over glob patterns, matched as a small automaton.
+ *
+ * <p>Patterns use {@code *} for any run of characters, so {@code Plant_Flower_*} is a prefix rule and {@code Ore_*_Copper} a family
+ * rule. All patterns share one trie and are walked together, so matching costs the length of the item id rather than the number of
+ * patterns. Exact item ids never enter the trie; {@link ItemMatcher} checks them in its bitset first. The trie is immutable once
+ * compiled.
+ */
+final class PatternTrie {
+
+    /** Wildcard character accepted in patterns. */
+    static final char WILDCARD = '*';
+
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    /** Node reached by a wildcard edge, or -1. */
+    private final int[] wildcardTargets;
+    /** Whether the node was entered through a wildcard and may consume any character. */
+    private final boolean[] wildcardNodes;
+    private final boolean[] terminals;
+    /** Source rules, kept so two tries can be merged. */
+    private final List<String> rules;
+
+    private PatternTrie(@NonNullDecl Builder builder, @NonNullDecl List<String> rules) {
+        this.rules = rules;
+        int size = builder.nodes.size();
+        this.edgeChars = new char[size][];
+        this.edgeTargets = new int[size][];
+        this.wildcardTargets = new int[size];
+        this.wildcardNodes = new boolean[size];
+        this.terminals = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            Builder.Node node = builder.nodes.get(i);
+            edgeChars[i] = Arrays.copyOf(node.chars, node.edgeCount);
+            edgeTargets[i] = Arrays.copyOf(node.targets, node.edgeCount);
+            wildcardTargets[i] = node.wildcardTarget;
+            wildcardNodes[i] = node.wildcard;
+            terminals[i] = node.terminal;
+        }
+    }
+
+    /**
+     * Compiles patterns into a trie.
+     *
+     * @param rules glob patterns, blanks ignored
+     * @return compiled trie or null when there are no rules
+     */
+    static PatternTrie compile(@NonNullDecl Iterable<String> rules) {
+        Builder builder = new Builder();
+        List<String> compiled = new ArrayList<>();
+        for (String rule : rules) {
+            if (rule != null && !rule.isBlank()) {
+                builder.insert(rule.trim());
+                compiled.add(rule.trim());
+            }
+        }
+        return compiled.isEmpty() ? null : new PatternTrie(builder, List.copyOf(compiled));
+    }
+
+    /**
+     * Compiles the union of two tries.
+     *
+     * @param first first trie or null
+     * @param second second trie or null
+     * @return merged trie, or null when both are null
+     */
+    static PatternTrie merge(PatternTrie first, PatternTrie second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        List<String> union = new ArrayList<>(first.rules);
+        union.addAll(second.rules);
+        return compile(union);
+    }
+
+    /**
+     * Returns whether a rule string contains a wildcard.
+     *
+     * @param rule rule string
+     * @return true for glob patterns
+     */
+    static boolean isPattern(String rule) {
+        return rule != null && rule.indexOf(WILDCARD) >= 0;
+    }
+
+    /**
+     * Matches an item id against every rule at once.
+     *
+     * @param itemId item id
+     * @return true when any rule matches the whole id
+     */
+    boolean matches(@NonNullDecl String itemId) {
+        int nodeCount = terminals.length;
+        int[] active = new int[nodeCount];
+        int[] next = new int[nodeCount];
+        int[] seen = new int[nodeCount];
+        int generation = 1;
+        int activeCount = addClosure(0, active, 0, seen, generation);
+        for (int i = 0, length = itemId.length(); i < length && activeCount > 0; i++) {
+            char c = itemId.charAt(i);
+            generation++;
+            int nextCount = 0;
+            for (int a = 0; a < activeCount; a++) {
+                int node = active[a];
+                if (wildcardNodes[node]) {
+                    nextCount = addClosure(node, next, nextCount, seen, generation);
+                }
+                int target = edge(node, c);
+                if (target >= 0) {
+                    nextCount = addClosure(target, next, nextCount, seen, generation);
+                }
+            }
+            int[] swap = active;
+            active = next;
+            next = swap;
+            activeCount = nextCount;
+        }
+        for (int a = 0; a < activeCount; a++) {
+            if (terminals[active[a]]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds a node and every node reachable from it through empty wildcard matches.
+     */
+    private int addClosure(int node, int[] set, int count, int[] seen, int generation) {
+        while (node >= 0 && seen[node] != generation) {
+            seen[node] = generation;
+            set[count++] = node;
+            node = wildcardTargets[node];
+        }
+        return count;
+    }
+
+    private int edge(int node, char c) {
+        char[] chars = edgeChars[node];
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == c) {
+                return edgeTargets[node][i];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Mutable trie used while compiling.
+     */
+    private static final class Builder {
+
+        private final List<Node> nodes = new ArrayList<>();
+
+        private Builder() {
+            nodes.add(new Node(false));
+        }
+
+        private void insert(@NonNullDecl String rule) {
+            int node = 0;
+            for (int i = 0, length = rule.length(); i < length; i++) {
+                char c = rule.charAt(i);
+                if (c == WILDCARD) {
+                    // Collapse runs of wildcards into one.
+                    if (nodes.get(node).wildcard) {
+                        continue;
+                    }
+                    node = wildcardChild(node);
+                } else {
+                    node = child(node, c);
+                }
+            }
+            nodes.get(node).terminal = true;
+        }
+
+        private int child(int node, char c) {
+            Node parent = nodes.get(node);
+            for (int i = 0; i < parent.edgeCount; i++) {
+                if (parent.chars[i] == c) {
+                    return parent.targets[i];
+                }
+            }
+            int created = nodes.size();
+            nodes.add(new Node(false));
+            parent.addEdge(c, created);
+            return created;
+        }
+
+        private int wildcardChild(int node) {
+            Node parent = nodes.get(node);
+            if (parent.wildcardTarget < 0) {
+                parent.wildcardTarget = nodes.size();
+                nodes.add(new Node(true));
+            }
+            return parent.wildcardTarget;
+        }
+
+        private static final class Node {
+            private char[] chars = new char[2];
+            private int[] targets = new int[2];
+            private int edgeCount;
+            private int wildcardTarget = -1;
+            private final boolean wildcard;
+            private boolean terminal;
+
+            private Node(boolean wildcard) {
+                this.wildcard = wildcard;
+            }
+
+            private void addEdge(char c, int target) {
+                if (edgeCount == chars.length) {
+                    chars = Arrays.copyOf(chars, edgeCount * 2);
+                    targets = Arrays.copyOf(targets, edgeCount * 2);
+                }
+                chars[edgeCount] = c;
+                targets[edgeCount] = target;
+                edgeCount++;
+            }
+        }
+    }
+}
@@ -2,8 +2,10 @@ package me.clutchy.hytale.autotrash.settings;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
@@ -16,9 +18,17 @@ import com.hypixel.hytale.codec.codecs.map.MapCodec;
 import com.hypixel.hytale.component.Component;
 import com.hypixel.hytale.component.ComponentType;
 import com.hypixel.hytale.component.Holder;
+import com.hypixel.hytale.logger.HytaleLogger;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
+import me.clutchy.hytale.autotrash.config.RuntimeConfig;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
+import me.clutchy.hytale.autotrash.system.AutoTrashMetrics;
+import me.clutchy.hytale.autotrash.system.ItemCounts;
+import me.clutchy.hytale.autotrash.system.PendingInventoryChanges;
+import me.clutchy.hytale.autotrash.system.TrashNotificationBatch;
+
 /**
  * Stores per-player auto-trash settings.
  *
@@ -26,27 +36,31 @@ import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
  */
 public class AutoTrashPlayerSettings implements Component<EntityStore> {
 
-    /** Maximum number of profiles a player can store. */
-    public static final int MAX_PROFILES = 50;
     /** Default profile name created on first use. */
     public static final String DEFAULT_PROFILE_NAME = "Default";
-    private static final int DATA_VERSION = 1;
+    private static final HytaleLogger LOGGER = HytaleLogger.forEnclosingClass();
+    private static final int DATA_VERSION = 2;
     private static final MapCodec<AutoTrashProfile, Map<String, AutoTrashProfile>> PROFILES_CODEC =
             new MapCodec<>(AutoTrashProfile.CODEC, LinkedHashMap::new);
 
     /** Codec used to serialize and validate auto-trash settings. */
     public static final BuilderCodec<AutoTrashPlayerSettings> CODEC = BuilderCodec.builder(AutoTrashPlayerSettings.class, AutoTrashPlayerSettings::new)
-            .append(new KeyedCodec<>("Version", Codec.INTEGER), AutoTrashPlayerSettings::setDataVersion, AutoTrashPlayerSettings::getDataVersion)
+            .append(new KeyedCodec<>("Version", Codec.INTEGER), AutoTrashPlayerSettings::setDataVersion,
+                    settings -> settings.normalized ? DATA_VERSION : settings.dataVersion)
             .documentation("Schema version for profile data.").add()
-            .append(new KeyedCodec<>("Profiles", PROFILES_CODEC), AutoTrashPlayerSettings::setProfiles, AutoTrashPlayerSettings::getProfiles)
-            .documentation("Named auto-trash profiles.").add()
-            .append(new KeyedCodec<>("ActiveProfile", Codec.STRING), AutoTrashPlayerSettings::setActiveProfileName, AutoTrashPlayerSettings::getActiveProfileName)
+            .append(new KeyedCodec<>("Profiles", PROFILES_CODEC), AutoTrashPlayerSettings::replaceProfiles,
+                    settings -> settings.normalized || settings.profiles.isEmpty() ? null : settings.profiles)
+            .documentation("Named auto-trash profiles as plain string lists (version 1 and earlier).").add()
+            .append(new KeyedCodec<>("Packed", PackedProfiles.CODEC), AutoTrashPlayerSettings::setPacked, AutoTrashPlayerSettings::packProfiles)
+            .documentation("Named auto-trash profiles, dictionary encoded (version 2).").add()
+            .append(new KeyedCodec<>("ActiveProfile", Codec.STRING), AutoTrashPlayerSettings::setActiveProfileName, settings -> settings.activeProfileName)
             .documentation("Name of the active profile.").add()
-            .append(new KeyedCodec<>("Enabled", Codec.BOOLEAN), AutoTrashPlayerSettings::setEnabled, AutoTrashPlayerSettings::isEnabled)
+            .append(new KeyedCodec<>("Enabled", Codec.BOOLEAN), (settings, value) -> settings.enabled = value, AutoTrashPlayerSettings::isEnabled)
             .documentation("Global enabled flag for auto-trash.").add()
-            .append(new KeyedCodec<>("Notify", Codec.BOOLEAN), AutoTrashPlayerSettings::setNotify, AutoTrashPlayerSettings::isNotify)
+            .append(new KeyedCodec<>("Notify", Codec.BOOLEAN), (settings, value) -> settings.notify = value, AutoTrashPlayerSettings::isNotify)
             .documentation("Global notify flag for auto-trash.").add()
-            .append(new KeyedCodec<>("ExactItems", Codec.STRING_ARRAY), AutoTrashPlayerSettings::setLegacyExactItems, settings -> null)
+            .append(new KeyedCodec<>("ExactItems", Codec.STRING_ARRAY), AutoTrashPlayerSettings::setLegacyExactItems,
+                    settings -> settings.normalized || settings.legacyExactItems.length == 0 ? null : settings.legacyExactItems)
             .documentation("Legacy exact item ids for migration.").add()
             .build();
 
@@ -56,6 +70,31 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
     private boolean enabled = true;
     private boolean notify = true;
     private String[] legacyExactItems = new String[0];
+    /** Packed profiles read by the codec, unpacked on first access once every field has been decoded. */
+    private PackedProfiles packed;
+    /**
+     * Whether decoded data has been unpacked, migrated and validated; runtime only. Until then the codec getters write back exactly
+     * what was read, so saving never runs migrations.
+     */
+    private boolean normalized;
+    /** Packed profiles that failed to decode, saved back unchanged so the stored profiles are never overwritten; runtime only. */
+    private PackedProfiles unreadable;
+    /** Bumped on every settings mutation, but not by building a snapshot; runtime only. */
+    private long modCount;
+    /** Packed profiles from the last save, reused while nothing changed; runtime only. */
+    private PackedProfiles encoded;
+    /** Settings modification count {@link #encoded} was built at. */
+    private long encodedModCount = -1;
+    /** Sum of profile modification counts {@link #encoded} was built at. */
+    private long encodedProfileMods = -1;
+    /** Latest published snapshot; {@code null} until first read after decoding. */
+    private volatile AutoTrashSnapshot snapshot;
+    /** Inventory changes queued for the tick engine; runtime only, never serialized or copied. */
+    private PendingInventoryChanges pendingChanges;
+    /** Coalesced trash notifications awaiting the next flush; runtime only, never serialized or copied. */
+    private TrashNotificationBatch notificationBatch;
+    /** Running totals for keep rules, rebuilt on first use after login; runtime only, never serialized or copied. */
+    private ItemCounts itemCounts;
 
     /** Creates a new settings instance with defaults. */
     public AutoTrashPlayerSettings() {
@@ -105,13 +144,14 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
      */
     public boolean activateProfile(@NonNullDecl String profileName) {
         ensureProfiles();
-        if (profileName == null || profileName.isBlank()) {
+        if (profileName == null || profileName.isBlank() || unreadable != null) {
             return false;
         }
         if (!profiles.containsKey(profileName)) {
             return false;
         }
         this.activeProfileName = profileName;
+        publish();
         return true;
     }
 
@@ -146,6 +186,9 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
      */
     public ProfileActionResult createProfile(@NonNullDecl String profileName, boolean duplicateFromActive) {
         ensureProfiles();
+        if (unreadable != null) {
+            return ProfileActionResult.UNREADABLE;
+        }
         if (profileName == null || profileName.isBlank()) {
             return ProfileActionResult.NAME_EMPTY;
         }
@@ -156,13 +199,14 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
         if (profiles.containsKey(trimmed)) {
             return ProfileActionResult.NAME_TAKEN;
         }
-        if (profiles.size() >= MAX_PROFILES) {
+        if (profiles.size() >= RuntimeConfig.current().getMaxProfiles()) {
             return ProfileActionResult.LIMIT_REACHED;
         }
-        AutoTrashProfile profile = duplicateFromActive ? getActiveProfile().copy() : new AutoTrashProfile();
+        AutoTrashProfile profile = duplicateFromActive ? getActiveProfile().copy() : AutoTrashProfile.empty();
         profiles.put(trimmed, profile);
         activeProfileName = trimmed;
         dataVersion = DATA_VERSION;
+        publish();
         return duplicateFromActive ? ProfileActionResult.DUPLICATED : ProfileActionResult.CREATED;
     }
 
@@ -176,6 +220,9 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
     @NonNullDecl
     public ProfileActionResult renameProfile(@NonNullDecl String currentName, @NonNullDecl String newName) {
         ensureProfiles();
+        if (unreadable != null) {
+            return ProfileActionResult.UNREADABLE;
+        }
         if (currentName == null || currentName.isBlank()) {
             return ProfileActionResult.NOT_FOUND;
         }
@@ -206,6 +253,7 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
             activeProfileName = trimmedNew;
         }
         dataVersion = DATA_VERSION;
+        publish();
         return ProfileActionResult.RENAMED;
     }
 
@@ -218,6 +266,9 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
     @NonNullDecl
     public ProfileActionResult deleteProfile(@NonNullDecl String profileName) {
         ensureProfiles();
+        if (unreadable != null) {
+            return ProfileActionResult.UNREADABLE;
+        }
         if (profileName == null || profileName.isBlank()) {
             return ProfileActionResult.NOT_FOUND;
         }
@@ -233,9 +284,23 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
             activeProfileName = profiles.keySet().iterator().next();
         }
         dataVersion = DATA_VERSION;
+        publish();
         return ProfileActionResult.DELETED;
     }
 
+    /**
+     * Returns whether the active profile is read-only because its stored data could not be decoded.
+     *
+     * <p>Unreadable data is saved back unchanged so a later version can still read it, which means edits made on top of it would never
+     * be saved. Edits are refused instead, and callers should tell the player why.
+     *
+     * @return true when rule and profile edits are refused
+     */
+    public boolean isActiveProfileReadOnly() {
+        ensureProfiles();
+        return unreadable != null || profiles.get(activeProfileName).isUnreadable();
+    }
+
     /**
      * Returns the number of profiles available.
      *
@@ -253,25 +318,48 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
      */
     public boolean isProfileLimitReached() {
         ensureProfiles();
-        return profiles.size() >= MAX_PROFILES;
+        return profiles.size() >= RuntimeConfig.current().getMaxProfiles();
     }
 
     /**
-     * Updates the profile map, copying values defensively.
+     * Updates the profile map, copying values so they share interned rules, and publishes a new snapshot.
      *
      * @param profiles profiles map to apply
      */
     public void setProfiles(Map<String, AutoTrashProfile> profiles) {
+        replaceProfiles(profiles);
+        publish();
+    }
+
+    /**
+     * Replaces the profile map without publishing, used while decoding; this is where decoded rules are interned.
+     *
+     * @param profiles profiles map to apply
+     */
+    private void replaceProfiles(Map<String, AutoTrashProfile> profiles) {
+        this.snapshot = null;
+        this.normalized = false;
+        this.modCount++;
+        this.profiles = copyProfiles(profiles);
+    }
+
+    /**
+     * Copies a profile map; each copy shares the interned rules, or the packed stream while undecoded.
+     *
+     * @param profiles profiles to copy, may be null
+     * @return copied profiles in the same order
+     */
+    @NonNullDecl
+    private static Map<String, AutoTrashProfile> copyProfiles(Map<String, AutoTrashProfile> profiles) {
+        Map<String, AutoTrashProfile> copied = new LinkedHashMap<>();
         if (profiles == null) {
-            this.profiles = new LinkedHashMap<>();
-            return;
+            return copied;
         }
-        Map<String, AutoTrashProfile> copied = new LinkedHashMap<>();
         for (Map.Entry<String, AutoTrashProfile> entry : profiles.entrySet()) {
             AutoTrashProfile profile = entry.getValue();
-            copied.put(entry.getKey(), profile == null ? new AutoTrashProfile() : profile.copy());
+            copied.put(entry.getKey(), profile == null ? AutoTrashProfile.empty() : profile.copy());
         }
-        this.profiles = copied;
+        return copied;
     }
 
     /**
@@ -286,22 +374,88 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
     }
 
     /**
-     * Sets the data schema version.
+     * Encodes the profiles for saving, without normalizing them.
      *
-     * @param dataVersion schema version
+     * <p>Data that was never normalized is written back as read: the packed profiles verbatim, or nothing when they were stored plain.
+     *
+     * @return packed profiles, or null when the profiles are saved plain
      */
-    private void setDataVersion(int dataVersion) {
-        this.dataVersion = dataVersion;
+    private PackedProfiles packProfiles() {
+        if (!normalized) {
+            return packed;
+        }
+        if (unreadable != null) {
+            return unreadable;
+        }
+        long profileMods = sumProfileMods();
+        PackedProfiles cached = encoded;
+        if (cached != null && encodedModCount == modCount && encodedProfileMods == profileMods) {
+            AutoTrashMetrics.recordSettingsSave(true, cached.getApproximateBytes());
+            return cached;
+        }
+        cached = PackedProfiles.encode(profiles);
+        encoded = cached;
+        encodedModCount = modCount;
+        encodedProfileMods = profileMods;
+        AutoTrashMetrics.recordSettingsSave(false, cached.getApproximateBytes());
+        return cached;
     }
 
     /**
-     * Returns the schema version, running pending migrations if needed.
+     * Sums the modification counts of every profile.
      *
-     * @return schema version
+     * @return combined profile modification count
      */
-    private int getDataVersion() {
-        runMigrations();
-        return dataVersion;
+    private long sumProfileMods() {
+        long profileMods = 0;
+        for (AutoTrashProfile profile : profiles.values()) {
+            profileMods += profile.modCount;
+        }
+        return profileMods;
+    }
+
+    /**
+     * Replaces the profiles with the packed ones read by the codec.
+     *
+     * <p>When the packed data is unreadable the player runs on a default profile for this session, and the packed data is kept and saved
+     * back unchanged instead of the default, so a later version that can read it still finds the original profiles. Profile and rule edits
+     * are refused meanwhile, see {@link #isActiveProfileReadOnly()}.
+     */
+    private void unpackProfiles() {
+        PackedProfiles source = packed;
+        packed = null;
+        try {
+            // Only the active profile is decoded now; the rest stay packed until something reads them.
+            this.profiles = source.decode(activeProfileName);
+            // The data just read is already the encoding of these profiles, so an unchanged player never re-encodes.
+            this.encoded = source;
+            this.encodedModCount = modCount;
+            this.encodedProfileMods = sumProfileMods();
+        } catch (IllegalArgumentException e) {
+            LOGGER.atWarning().withCause(e).log("Unreadable packed AutoTrash profiles; keeping the stored data and refusing edits");
+            this.unreadable = source;
+        }
+    }
+
+    /**
+     * Stores packed profiles read by the codec until first access.
+     *
+     * @param packed packed profiles
+     */
+    private void setPacked(PackedProfiles packed) {
+        this.packed = packed;
+        this.normalized = false;
+        this.snapshot = null;
+    }
+
+    /**
+     * Sets the data schema version.
+     *
+     * @param dataVersion schema version
+     */
+    private void setDataVersion(int dataVersion) {
+        this.dataVersion = dataVersion;
+        this.normalized = false;
     }
 
     /**
@@ -311,6 +465,8 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
      */
     private void setActiveProfileName(String activeProfileName) {
         this.activeProfileName = activeProfileName;
+        this.normalized = false;
+        this.snapshot = null;
     }
 
     /**
@@ -329,6 +485,110 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
      */
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
+        publish();
+    }
+
+    /**
+     * Returns the latest published snapshot, building the first one lazily after decoding.
+     *
+     * @return immutable settings snapshot
+     */
+    @NonNullDecl
+    public AutoTrashSnapshot getSnapshot() {
+        AutoTrashSnapshot current = snapshot;
+        if (current == null) {
+            current = buildSnapshot();
+        }
+        return current;
+    }
+
+    /**
+     * Records a settings mutation and publishes a new immutable snapshot.
+     *
+     * @return the published snapshot
+     */
+    @NonNullDecl
+    private AutoTrashSnapshot publish() {
+        modCount++;
+        return buildSnapshot();
+    }
+
+    /**
+     * Normalizes the settings and builds a new immutable snapshot, without counting as a mutation.
+     *
+     * @return the published snapshot
+     */
+    @NonNullDecl
+    private AutoTrashSnapshot buildSnapshot() {
+        ensureProfiles();
+        AutoTrashSnapshot published = new AutoTrashSnapshot(enabled, notify, activeProfileName, profiles.get(activeProfileName).getMatcher());
+        this.snapshot = published;
+        return published;
+    }
+
+    /**
+     * Returns whether inventory changes are queued for the tick engine.
+     *
+     * @return true when the player is dirty
+     */
+    public boolean hasPendingChanges() {
+        PendingInventoryChanges pending = pendingChanges;
+        return pending != null && !pending.isEmpty();
+    }
+
+    /**
+     * Returns the queue of inventory changes for the tick engine, creating it on first use.
+     *
+     * @return pending inventory changes
+     */
+    @NonNullDecl
+    public PendingInventoryChanges getPendingChanges() {
+        PendingInventoryChanges pending = pendingChanges;
+        if (pending == null) {
+            pending = new PendingInventoryChanges();
+            pendingChanges = pending;
+        }
+        return pending;
+    }
+
+    /**
+     * Returns the player's keep-rule item totals, creating an empty index on first use.
+     *
+     * @return item totals
+     */
+    @NonNullDecl
+    public ItemCounts getItemCounts() {
+        ItemCounts counts = itemCounts;
+        if (counts == null) {
+            counts = new ItemCounts();
+            itemCounts = counts;
+        }
+        return counts;
+    }
+
+    /**
+     * Returns whether trash notifications are waiting to be flushed.
+     *
+     * @return true when notifications are queued
+     */
+    public boolean hasQueuedNotifications() {
+        TrashNotificationBatch batch = notificationBatch;
+        return batch != null && !batch.isEmpty();
+    }
+
+    /**
+     * Returns the player's notification batch, creating it on first use.
+     *
+     * @return notification batch
+     */
+    @NonNullDecl
+    public TrashNotificationBatch getNotificationBatch() {
+        TrashNotificationBatch batch = notificationBatch;
+        if (batch == null) {
+            batch = new TrashNotificationBatch();
+            notificationBatch = batch;
+        }
+        return batch;
     }
 
     /**
@@ -347,6 +607,7 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
      */
     public void setNotify(boolean notify) {
         this.notify = notify;
+        publish();
     }
 
     /**
@@ -356,17 +617,10 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
      * @return true if added
      */
     public boolean addExactItem(@NonNullDecl String itemId) {
-        AutoTrashProfile profile = getActiveProfile();
-        String[] existing = profile.getExactItems();
-        for (String current : existing) {
-            if (itemId.equals(current)) {
-                return false;
-            }
+        if (getActiveProfile().getMatcher().matchesExact(itemId)) {
+            return false;
         }
-        String[] updated = Arrays.copyOf(existing, existing.length + 1);
-        updated[existing.length] = itemId;
-        profile.setExactItems(updated);
-        return true;
+        return addRules(List.of(itemId), List.of(), List.of()) > 0;
     }
 
     /**
@@ -376,20 +630,171 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
      * @return true if removed
      */
     public boolean removeExactItem(@NonNullDecl String itemId) {
+        if (!getActiveProfile().getMatcher().matchesExact(itemId)) {
+            return false;
+        }
+        return removeRules(List.of(itemId), List.of(), List.of()) > 0;
+    }
+
+    /**
+     * Adds a wildcard pattern to the active profile when missing.
+     *
+     * @param pattern glob pattern using {@code *}
+     * @return true if added
+     */
+    public boolean addPattern(@NonNullDecl String pattern) {
+        return addRules(List.of(), List.of(pattern), List.of()) > 0;
+    }
+
+    /**
+     * Removes a wildcard pattern from the active profile.
+     *
+     * @param pattern glob pattern to remove
+     * @return true if removed
+     */
+    public boolean removePattern(@NonNullDecl String pattern) {
+        return removeRules(List.of(), List.of(pattern), List.of()) > 0;
+    }
+
+    /**
+     * Adds a category or tag rule to the active profile when missing.
+     *
+     * @param category category rule such as {@code #Seed}
+     * @return true if added
+     */
+    public boolean addCategory(@NonNullDecl String category) {
+        return addRules(List.of(), List.of(), List.of(category)) > 0;
+    }
+
+    /**
+     * Removes a category or tag rule from the active profile.
+     *
+     * @param category category rule to remove
+     * @return true if removed
+     */
+    public boolean removeCategory(@NonNullDecl String category) {
+        return removeRules(List.of(), List.of(), List.of(category)) > 0;
+    }
+
+    /**
+     * Adds many rules to the active profile in one batch, skipping ones already present.
+     *
+     * <p>Each list is merged through an insertion-ordered set, so a batch costs one pass over the profile instead of one copy per rule,
+     * and the matcher is recompiled once for the whole batch.
+     *
+     * @param exactItems exact item ids to add
+     * @param patterns glob patterns to add
+     * @param categories category rules to add
+     * @return number of rules added, zero while the active profile is read-only
+     */
+    public int addRules(@NonNullDecl Collection<String> exactItems, @NonNullDecl Collection<String> patterns, @NonNullDecl Collection<String> categories) {
+        return editRules(exactItems, patterns, categories, true);
+    }
+
+    /**
+     * Removes many rules from the active profile in one batch.
+     *
+     * @param exactItems exact item ids to remove
+     * @param patterns glob patterns to remove
+     * @param categories category rules to remove
+     * @return number of rules removed, zero while the active profile is read-only
+     */
+    public int removeRules(@NonNullDecl Collection<String> exactItems, @NonNullDecl Collection<String> patterns, @NonNullDecl Collection<String> categories) {
+        return editRules(exactItems, patterns, categories, false);
+    }
+
+    /**
+     * Applies a batch of additions or removals to the active profile and publishes once.
+     *
+     * @param exactItems exact item ids
+     * @param patterns glob patterns
+     * @param categories category rules
+     * @param add true to add, false to remove
+     * @return number of rules changed
+     */
+    private int editRules(@NonNullDecl Collection<String> exactItems, @NonNullDecl Collection<String> patterns, @NonNullDecl Collection<String> categories,
+            boolean add) {
+        if (isActiveProfileReadOnly()) {
+            return 0;
+        }
         AutoTrashProfile profile = getActiveProfile();
-        List<String> updated = new ArrayList<>();
-        boolean removed = false;
-        for (String current : profile.getExactItems()) {
-            if (itemId.equals(current)) {
-                removed = true;
-                continue;
-            }
-            updated.add(current);
+        int changed = 0;
+        RuleSet set = RuleSet.of(profile.getExactItems(), false);
+        if (set.apply(exactItems, add)) {
+            changed += set.changed;
+            profile.setExactItems(set.toArray());
+        }
+        set = RuleSet.of(profile.getPatterns(), false);
+        if (set.apply(patterns, add)) {
+            changed += set.changed;
+            profile.setPatterns(set.toArray());
+        }
+        set = RuleSet.of(profile.getCategories(), true);
+        if (set.apply(categories, add)) {
+            changed += set.changed;
+            profile.setCategories(set.toArray());
+        }
+        if (changed > 0) {
+            publish();
+        }
+        return changed;
+    }
+
+    /**
+     * Keeps up to a quantity of an item in the active profile and trashes the excess.
+     *
+     * @param itemId item id
+     * @param quantity quantity to keep
+     * @return true if the limit changed
+     */
+    public boolean setKeepLimit(@NonNullDecl String itemId, int quantity) {
+        if (isActiveProfileReadOnly()) {
+            return false;
         }
-        if (removed) {
-            profile.setExactItems(updated.toArray(new String[0]));
+        AutoTrashProfile profile = getActiveProfile();
+        Integer previous = profile.getKeepLimits().get(itemId);
+        if (previous != null && previous == quantity) {
+            return false;
         }
-        return removed;
+        Map<String, Integer> updated = new LinkedHashMap<>(profile.getKeepLimits());
+        updated.put(itemId, quantity);
+        profile.setKeepLimits(updated);
+        publish();
+        return true;
+    }
+
+    /**
+     * Removes the keep limit of an item from the active profile.
+     *
+     * @param itemId item id
+     * @return true if a limit was removed
+     */
+    public boolean removeKeepLimit(@NonNullDecl String itemId) {
+        if (isActiveProfileReadOnly()) {
+            return false;
+        }
+        AutoTrashProfile profile = getActiveProfile();
+        if (!profile.getKeepLimits().containsKey(itemId)) {
+            return false;
+        }
+        Map<String, Integer> updated = new LinkedHashMap<>(profile.getKeepLimits());
+        updated.remove(itemId);
+        profile.setKeepLimits(updated);
+        publish();
+        return true;
+    }
+
+    /**
+     * Replaces the exact item ids of the active profile.
+     *
+     * @param exactItems exact item ids
+     */
+    public void setActiveExactItems(String[] exactItems) {
+        if (isActiveProfileReadOnly()) {
+            return;
+        }
+        getActiveProfile().setExactItems(exactItems);
+        publish();
     }
 
     /**
@@ -399,22 +804,30 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
      */
     private void setLegacyExactItems(String[] legacyExactItems) {
         this.legacyExactItems = legacyExactItems == null ? new String[0] : Arrays.copyOf(legacyExactItems, legacyExactItems.length);
+        this.normalized = false;
     }
 
     /**
      * Ensures profiles exist and migrations are applied.
      */
     private void ensureProfiles() {
+        if (normalized) {
+            return;
+        }
+        if (packed != null) {
+            unpackProfiles();
+        }
         if (profiles == null) {
             profiles = new LinkedHashMap<>();
         }
         runMigrations();
         if (profiles.isEmpty()) {
-            profiles.put(DEFAULT_PROFILE_NAME, new AutoTrashProfile());
+            profiles.put(DEFAULT_PROFILE_NAME, AutoTrashProfile.empty());
         }
         if (activeProfileName == null || activeProfileName.isBlank() || !profiles.containsKey(activeProfileName)) {
             activeProfileName = profiles.keySet().iterator().next();
         }
+        normalized = true;
     }
 
     /**
@@ -431,6 +844,8 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
                     migrateV0ToV1();
                     version = 1;
                 }
+                // Version 2 only changes the stored encoding; the in-memory profiles are already current.
+                case 1 -> version = 2;
                 default -> version = DATA_VERSION;
             }
         }
@@ -443,7 +858,7 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
     private void migrateV0ToV1() {
         AutoTrashProfile profile = profiles.get(DEFAULT_PROFILE_NAME);
         if (profile == null) {
-            profile = new AutoTrashProfile();
+            profile = AutoTrashProfile.empty();
             profiles.put(DEFAULT_PROFILE_NAME, profile);
         }
         if (legacyExactItems != null && legacyExactItems.length > 0) {
@@ -458,6 +873,9 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
     /**
      * Creates a deep copy of the settings.
      *
+     * <p>The copy keeps the state exactly as it is, without normalizing: data still packed stays packed, and a cached encoding that is
+     * current is carried over, so saving a copy costs no more than saving the original.
+     *
      * @return a cloned copy of these settings
      */
     @NonNullDecl
@@ -467,7 +885,18 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
         settings.activeProfileName = this.activeProfileName;
         settings.enabled = this.enabled;
         settings.notify = this.notify;
-        settings.setProfiles(this.profiles);
+        settings.legacyExactItems = this.legacyExactItems;
+        settings.packed = this.packed;
+        settings.normalized = this.normalized;
+        settings.unreadable = this.unreadable;
+        settings.profiles = copyProfiles(this.profiles);
+        PackedProfiles cached = this.encoded;
+        if (cached != null && encodedModCount == modCount && encodedProfileMods == sumProfileMods()) {
+            // Profile copies start their own modification counts, so the cache is keyed to the copy's counts.
+            settings.encoded = cached;
+            settings.encodedModCount = settings.modCount;
+            settings.encodedProfileMods = settings.sumProfileMods();
+        }
         return settings;
     }
 
@@ -479,8 +908,70 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
     }
 
     /**
-     * Outcome of profile management operations.
+     * Insertion-ordered rule set used to apply a batch of edits to one rule list.
      */
+    private static final class RuleSet {
+
+        /** Rules keyed by their comparison form. */
+        private final Map<String, String> rules;
+        private final boolean ignoreCase;
+        /** Rules added or removed by the last {@link #apply}. */
+        private int changed;
+
+        private RuleSet(@NonNullDecl Map<String, String> rules, boolean ignoreCase) {
+            this.rules = rules;
+            this.ignoreCase = ignoreCase;
+        }
+
+        /**
+         * Builds a set from a rule list.
+         *
+         * @param existing current rules
+         * @param ignoreCase whether rules compare case-insensitively
+         * @return rule set
+         */
+        @NonNullDecl
+        private static RuleSet of(@NonNullDecl String[] existing, boolean ignoreCase) {
+            RuleSet set = new RuleSet(new LinkedHashMap<>(existing.length * 2), ignoreCase);
+            for (String rule : existing) {
+                if (rule != null) {
+                    set.rules.putIfAbsent(set.key(rule), rule);
+                }
+            }
+            return set;
+        }
+
+        /**
+         * Adds or removes rules.
+         *
+         * @param edits rules to add or remove
+         * @param add true to add, false to remove
+         * @return true when the set changed
+         */
+        private boolean apply(@NonNullDecl Collection<String> edits, boolean add) {
+            changed = 0;
+            for (String rule : edits) {
+                if (rule == null || rule.isBlank()) {
+                    continue;
+                }
+                if (add ? rules.putIfAbsent(key(rule), rule) == null : rules.remove(key(rule)) != null) {
+                    changed++;
+                }
+            }
+            return changed > 0;
+        }
+
+        @NonNullDecl
+        private String[] toArray() {
+            return rules.values().toArray(String[]::new);
+        }
+
+        @NonNullDecl
+        private String key(@NonNullDecl String rule) {
+            return ignoreCase ? rule.toLowerCase(Locale.ROOT) : rule;
+        }
+    }
+
     /**
      * Outcome of profile management operations.
      */
@@ -502,20 +993,45 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
         /** Profile could not be found. */
         NOT_FOUND,
         /** Last remaining profile cannot be deleted. */
-        LAST_PROFILE
+        LAST_PROFILE,
+        /** Stored profiles could not be decoded, so profile changes are refused. */
+        UNREADABLE
     }
 
     /**
      * Stores per-profile auto-trash settings.
+     *
+     * <p>The rules live in an immutable {@link ProfileRules} interned through {@link ProfileRulesPool}, so profiles with identical
+     * content share one instance and one compiled matcher. Every setter is copy-on-write: it swaps in a new interned rule set and never
+     * touches the shared one.
      */
     public static class AutoTrashProfile {
+        private static final MapCodec<Integer, Map<String, Integer>> KEEP_LIMITS_CODEC = new MapCodec<>(Codec.INTEGER, LinkedHashMap::new);
+
         /** Codec used to serialize profile data. */
         public static final BuilderCodec<AutoTrashProfile> CODEC = BuilderCodec.builder(AutoTrashProfile.class, AutoTrashProfile::new)
-                .append(new KeyedCodec<>("ExactItems", Codec.STRING_ARRAY), AutoTrashProfile::setExactItems, AutoTrashProfile::getExactItems)
+                .append(new KeyedCodec<>("ExactItems", Codec.STRING_ARRAY), (profile, value) -> profile.rules = profile.rules.withExactItems(value),
+                        AutoTrashProfile::getExactItems)
                 .documentation("Exact item ids to delete on pickup for this profile.").add()
+                .append(new KeyedCodec<>("Patterns", Codec.STRING_ARRAY), (profile, value) -> profile.rules = profile.rules.withPatterns(value),
+                        AutoTrashProfile::getPatterns)
+                .documentation("Wildcard item id patterns, using * for any run of characters.").add()
+                .append(new KeyedCodec<>("Categories", Codec.STRING_ARRAY), (profile, value) -> profile.rules = profile.rules.withCategories(value),
+                        AutoTrashProfile::getCategories)
+                .documentation("Item asset category or tag rules, each prefixed with #.").add()
+                .append(new KeyedCodec<>("KeepLimits", KEEP_LIMITS_CODEC), (profile, value) -> profile.rules = profile.rules.withKeepLimits(value),
+                        AutoTrashProfile::getKeepLimits)
+                .documentation("Quantity to keep per item id; anything above it is deleted.").add()
                 .build();
 
-        private String[] exactItems = new String[0];
+        /** Current rules; decoded profiles hold a private instance until they are copied into settings and interned, null while packed. */
+        private volatile ProfileRules rules = ProfileRules.EMPTY;
+        /** Bumped by every rule edit so settings know when their cached encoding is stale; runtime only. */
+        private long modCount;
+        /** Packed stream kept until first use, or for good when it fails to decode; null once decoded. */
+        private String packedStream;
+        /** Dictionary the packed stream refers to; null once decoded. */
+        private String[] packedDictionary;
 
         /** Creates a new profile with no filters. */
         public AutoTrashProfile() {
@@ -527,16 +1043,119 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
          * @param exactItems exact item ids to remove
          */
         public AutoTrashProfile(String[] exactItems) {
-            this.exactItems = exactItems == null ? new String[0] : Arrays.copyOf(exactItems, exactItems.length);
+            setExactItems(exactItems);
+        }
+
+        /**
+         * Creates a profile holding the interned form of a rule set.
+         *
+         * @param rules profile rules
+         * @return new profile
+         */
+        @NonNullDecl
+        static AutoTrashProfile of(@NonNullDecl ProfileRules rules) {
+            return new AutoTrashProfile().share(rules);
+        }
+
+        /**
+         * Creates a profile that keeps its packed stream and decodes it on first use.
+         *
+         * @param stream packed profile stream
+         * @param dictionary dictionary the stream refers to
+         * @return new packed profile
+         */
+        @NonNullDecl
+        static AutoTrashProfile packed(@NonNullDecl String stream, @NonNullDecl String[] dictionary) {
+            AutoTrashProfile profile = new AutoTrashProfile();
+            profile.packedStream = stream;
+            profile.packedDictionary = dictionary;
+            profile.rules = null;
+            return profile;
+        }
+
+        /**
+         * Creates an empty profile registered with the rule pool.
+         *
+         * @return empty profile
+         */
+        @NonNullDecl
+        static AutoTrashProfile empty() {
+            return of(ProfileRules.EMPTY);
         }
 
         /**
-         * Returns the exact item filters.
+         * Returns the shared rule set of this profile.
+         *
+         * @return immutable rules
+         */
+        @NonNullDecl
+        public ProfileRules getRules() {
+            ProfileRules current = rules;
+            return current != null ? current : unpack();
+        }
+
+        /**
+         * Returns the packed stream while the profile has not been decoded, or when it could not be decoded.
+         *
+         * @return packed stream, or null once decoded
+         */
+        synchronized String getPackedStream() {
+            return packedStream;
+        }
+
+        /**
+         * Returns the dictionary of the packed stream while the profile has not been decoded.
+         *
+         * @return dictionary, or null once decoded
+         */
+        synchronized String[] getPackedDictionary() {
+            return packedDictionary;
+        }
+
+        /**
+         * Returns whether the packed stream of this profile failed to decode, decoding it first if needed.
+         *
+         * @return true when the profile runs empty and must not be edited
+         */
+        synchronized boolean isUnreadable() {
+            getRules();
+            return packedStream != null;
+        }
+
+        /**
+         * Decodes the packed stream on first use.
+         *
+         * <p>An unreadable stream leaves the profile empty for this session but keeps the stream, so saves write it back unchanged;
+         * settings refuse edits to the profile meanwhile.
+         *
+         * @return decoded rules
+         */
+        @NonNullDecl
+        private synchronized ProfileRules unpack() {
+            ProfileRules current = rules;
+            if (current != null) {
+                return current;
+            }
+            try {
+                ProfileRules decoded = PackedProfiles.decodeRules(packedStream, packedDictionary);
+                AutoTrashMetrics.PROFILES_LAZY_DECODED.increment();
+                packedStream = null;
+                packedDictionary = null;
+                share(decoded);
+            } catch (IllegalArgumentException e) {
+                LOGGER.atWarning().withCause(e).log("Unreadable packed AutoTrash profile; keeping the stored stream");
+                share(ProfileRules.EMPTY);
+            }
+            return rules;
+        }
+
+        /**
+         * Returns the exact item filters; shared, must not be modified.
          *
          * @return exact item ids
          */
         public String[] getExactItems() {
-            return exactItems;
+            return getRules().getExactItems();
         }
 
         /**
@@ -545,19 +1164,109 @@ public class AutoTrashPlayerSettings implements Component<EntityStore> {
          * @param exactItems exact item ids
          */
         public void setExactItems(String[] exactItems) {
-            this.exactItems = exactItems == null ? new String[0] : Arrays.copyOf(exactItems, exactItems.length);
+            edit(getRules().withExactItems(exactItems));
+        }
+
+        /**
+         * Returns the wildcard pattern filters; shared, must not be modified.
+         *
+         * @return glob patterns
+         */
+        public String[] getPatterns() {
+            return getRules().getPatterns();
+        }
+
+        /**
+         * Replaces the wildcard pattern filters.
+         *
+         * @param patterns glob patterns
+         */
+        public void setPatterns(String[] patterns) {
+            edit(getRules().withPatterns(patterns));
         }
 
         /**
-         * Creates a deep copy of the profile.
+         * Returns the category and tag filters; shared, must not be modified.
+         *
+         * @return category rules
+         */
+        public String[] getCategories() {
+            return getRules().getCategories();
+        }
+
+        /**
+         * Replaces the category and tag filters.
+         *
+         * @param categories category rules
+         */
+        public void setCategories(String[] categories) {
+            edit(getRules().withCategories(categories));
+        }
+
+        /**
+         * Returns the keep limits by item id.
+         *
+         * @return unmodifiable quantity to keep per item id
+         */
+        public Map<String, Integer> getKeepLimits() {
+            return getRules().getKeepLimits();
+        }
+
+        /**
+         * Replaces the keep limits.
+         *
+         * @param keepLimits quantity to keep per item id
+         */
+        public void setKeepLimits(Map<String, Integer> keepLimits) {
+            edit(getRules().withKeepLimits(keepLimits));
+        }
+
+        /**
+         * Returns the compiled matcher for this profile, shared with every profile holding the same rules.
+         *
+         * @return compiled matcher
+         */
+        @NonNullDecl
+        public ItemMatcher getMatcher() {
+            return getRules().getMatcher();
+        }
+
+        /**
+         * Creates a copy of the profile that shares the interned rules, and the packed stream while it is undecoded or unreadable.
          *
          * @return profile copy
          */
         @NonNullDecl
-        public AutoTrashProfile copy() {
-            AutoTrashProfile profile = new AutoTrashProfile();
-            profile.exactItems = Arrays.copyOf(this.exactItems, this.exactItems.length);
-            return profile;
+        public synchronized AutoTrashProfile copy() {
+            if (rules == null) {
+                return packed(packedStream, packedDictionary);
+            }
+            AutoTrashProfile copy = new AutoTrashProfile().share(this.rules);
+            copy.packedStream = packedStream;
+            copy.packedDictionary = packedDictionary;
+            return copy;
+        }
+
+        /**
+         * Applies a rule edit and marks the profile modified.
+         *
+         * @param updated edited rule set
+         */
+        private void edit(@NonNullDecl ProfileRules updated) {
+            share(updated);
+            modCount++;
+        }
+
+        /**
+         * Points this profile at the canonical instance of a rule set.
+         *
+         * @param updated rule set to intern
+         * @return this profile
+         */
+        @NonNullDecl
+        private AutoTrashProfile share(@NonNullDecl ProfileRules updated) {
+            this.rules = ProfileRulesPool.intern(updated, this);
+            return this;
         }
     }
 
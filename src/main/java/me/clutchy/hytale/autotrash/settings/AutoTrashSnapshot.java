@@ -0,0 +1,116 @@
+package me.clutchy.hytale.autotrash.settings;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import me.clutchy.hytale.autotrash.config.RuntimeConfig;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
+
+/**
+ * Immutable, fully normalized view of a player's settings for the world-thread hot path.
+ *
+ * <p>Each settings mutation publishes a new snapshot through a single volatile field, so readers never see a half-applied change and
+ * never run normalization, migrations or locking. The server's global rule layer from {@link RuntimeConfig} is merged in copy-on-write: the first
+ * read after a layer swap builds a new effective matcher, and every later read is one volatile load.
+ */
+public final class AutoTrashSnapshot {
+
+    private final boolean enabled;
+    private final boolean notify;
+    private final String activeProfileName;
+    private final ItemMatcher matcher;
+    /** Effective matcher together with the global layer it was merged from. */
+    private volatile Effective effective;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param enabled whether auto-trash is enabled
+     * @param notify whether notifications are enabled
+     * @param activeProfileName active profile name
+     * @param matcher compiled matcher of the active profile
+     */
+    AutoTrashSnapshot(boolean enabled, boolean notify, @NonNullDecl String activeProfileName, @NonNullDecl ItemMatcher matcher) {
+        this.enabled = enabled;
+        this.notify = notify;
+        this.activeProfileName = activeProfileName;
+        this.matcher = matcher;
+    }
+
+    /**
+     * Returns whether auto-trash is enabled.
+     *
+     * @return true when enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns whether auto-trash notifications are enabled.
+     *
+     * @return true when notifications are enabled
+     */
+    public boolean isNotify() {
+        return notify;
+    }
+
+    /**
+     * Returns whether the effective matcher has at least one rule: the player's own while enabled, or the server's global rules.
+     *
+     * @return true when inventory changes need to be evaluated
+     */
+    public boolean isArmed() {
+        return !getMatcher().isEmpty();
+    }
+
+    /**
+     * Returns the active profile name.
+     *
+     * @return active profile name
+     */
+    @NonNullDecl
+    public String getActiveProfileName() {
+        return activeProfileName;
+    }
+
+    /**
+     * Returns the effective matcher: the active profile when enabled, merged with the server's global rules.
+     *
+     * @return compiled matcher to evaluate items against
+     */
+    @NonNullDecl
+    public ItemMatcher getMatcher() {
+        ItemMatcher layer = RuntimeConfig.current().getGlobalRules();
+        Effective current = effective;
+        if (current == null || current.layer != layer) {
+            // Global rules are enforced even when the player has auto-trash disabled.
+            current = new Effective(layer, enabled ? ItemMatcher.merge(matcher, layer) : layer);
+            effective = current;
+        }
+        return current.matcher;
+    }
+
+    /**
+     * Returns the compiled matcher of the active profile alone.
+     *
+     * @return profile matcher
+     */
+    @NonNullDecl
+    public ItemMatcher getProfileMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Effective matcher paired with its source layer, published as one reference.
+     */
+    private static final class Effective {
+
+        private final ItemMatcher layer;
+        private final ItemMatcher matcher;
+
+        private Effective(@NonNullDecl ItemMatcher layer, @NonNullDecl ItemMatcher matcher) {
+            this.layer = layer;
+            this.matcher = matcher;
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package me.clutchy.hytale.autotrash.settings;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+import com.hypixel.hytale.codec.codecs.map.MapCodec;
+import com.hypixel.hytale.server.core.modules.item.ItemModule;
+
+import me.clutchy.hytale.autotrash.system.AutoTrashMetrics;
+
+/**
+ * Dictionary-encoded form of a player's profiles, used by settings data version 2.
+ *
+ * <p>Every registered item id referenced by any profile is written once to a dictionary shared by all of the player's profiles. Each
+ * profile is then a compact varint stream, Base64 encoded, that refers to item ids by dictionary position:
+ *
+ * <pre>
+ * profile  = refs(exact) strings(patterns) strings(categories) count (ref zigzag(quantity))*
+ * refs     = count ref*
+ * strings  = count string*
+ * ref      = varint 0 string | varint (dictionary index + 1)
+ * string   = varint 0 (null) | varint (utf8 length + 1) utf8
+ * </pre>
+ *
+ * <p>Ids that are not registered items, such as ids of removed assets, fall back to inline strings so they round-trip unchanged.
+ * Rule order and duplicates are preserved exactly.
+ *
+ * <p>Loading decodes only the active profile; the others keep their stream until first use. Saving writes still-packed streams back
+ * verbatim, so the previous dictionary is kept as the prefix of the new one while any profile is undecoded. Once most of that
+ * dictionary is no longer referenced, the undecoded profiles are decoded instead and the dictionary is rebuilt from the live ids.
+ */
+final class PackedProfiles {
+
+    /** Encoding version of the profile streams, written next to the dictionary. */
+    static final int ENCODING_VERSION = 1;
+
+    /** Fewest unreferenced dictionary entries worth decoding the carried streams to drop. */
+    private static final int MIN_DEAD_ENTRIES = 16;
+
+    private static final MapCodec<String, Map<String, String>> PROFILES_CODEC = new MapCodec<>(Codec.STRING, LinkedHashMap::new);
+
+    /** Codec used to serialize packed profiles. */
+    static final BuilderCodec<PackedProfiles> CODEC = BuilderCodec.builder(PackedProfiles.class, PackedProfiles::new)
+            .append(new KeyedCodec<>("Encoding", Codec.INTEGER), (packed, value) -> packed.encoding = value, packed -> packed.encoding)
+            .documentation("Encoding version of the packed profile streams.").add()
+            .append(new KeyedCodec<>("Dictionary", Codec.STRING_ARRAY), (packed, value) -> packed.dictionary = value, packed -> packed.dictionary)
+            .documentation("Item ids referenced by the packed profiles, by position.").add()
+            .append(new KeyedCodec<>("Profiles", PROFILES_CODEC), (packed, value) -> packed.profiles = value, packed -> packed.profiles)
+            .documentation("Base64 varint stream per profile name.").add()
+            .build();
+
+    private int encoding = ENCODING_VERSION;
+    private String[] dictionary = new String[0];
+    private Map<String, String> profiles = new LinkedHashMap<>();
+    /** Approximate serialized size, set when encoding or decoding; not serialized. */
+    private long approximateBytes;
+
+    private PackedProfiles() {
+    }
+
+    /**
+     * Encodes profiles into a shared dictionary and one stream per profile.
+     *
+     * @param source profiles by name
+     * @return packed profiles
+     */
+    @NonNullDecl
+    static PackedProfiles encode(@NonNullDecl Map<String, AutoTrashPlayerSettings.AutoTrashProfile> source) {
+        long startNanos = System.nanoTime();
+        Encoder encoder = new Encoder();
+        String[] carried = null;
+        for (AutoTrashPlayerSettings.AutoTrashProfile profile : source.values()) {
+            if (profile.getPackedDictionary() != null) {
+                carried = profile.getPackedDictionary();
+                break;
+            }
+        }
+        if (carried != null && isMostlyDead(source, carried)) {
+            // Carried streams pin every position of their dictionary, so they are decoded below and re-encoded against a fresh one.
+            carried = null;
+        }
+        if (carried != null) {
+            encoder.seed(carried);
+        }
+        PackedProfiles packed = new PackedProfiles();
+        long plainBytes = 0;
+        long packedBytes = 0;
+        for (Map.Entry<String, AutoTrashPlayerSettings.AutoTrashProfile> entry : source.entrySet()) {
+            AutoTrashPlayerSettings.AutoTrashProfile profile = entry.getValue();
+            String stream = profile.getPackedStream();
+            if (stream == null || profile.getPackedDictionary() != carried) {
+                // Decoded, or packed against another player's dictionary and so not reusable verbatim.
+                ProfileRules rules = profile.getRules();
+                stream = encoder.encode(rules);
+                plainBytes += plainSize(rules);
+            }
+            packed.profiles.put(entry.getKey(), stream);
+            packedBytes += stream.length();
+        }
+        packed.dictionary = encoder.dictionary.toArray(String[]::new);
+        for (String id : packed.dictionary) {
+            packedBytes += id.length() + 3;
+        }
+        packed.approximateBytes = packedBytes;
+        AutoTrashMetrics.recordProfileEncode(System.nanoTime() - startNanos, packedBytes, plainBytes);
+        return packed;
+    }
+
+    /**
+     * Returns whether enough of a carried dictionary is referenced by no profile that rebuilding it is worth decoding the carried
+     * streams.
+     *
+     * @param source profiles by name
+     * @param carried dictionary shared by the still-packed profiles
+     * @return true when the dictionary should be rebuilt
+     */
+    private static boolean isMostlyDead(@NonNullDecl Map<String, AutoTrashPlayerSettings.AutoTrashProfile> source, @NonNullDecl String[] carried) {
+        if (carried.length < MIN_DEAD_ENTRIES) {
+            return false;
+        }
+        boolean[] live = new boolean[carried.length];
+        Set<String> decodedIds = new HashSet<>();
+        for (AutoTrashPlayerSettings.AutoTrashProfile profile : source.values()) {
+            String stream = profile.getPackedStream();
+            if (stream != null && profile.getPackedDictionary() == carried) {
+                try {
+                    new Decoder(Base64.getDecoder().decode(stream), carried).markRefs(live);
+                } catch (IllegalArgumentException e) {
+                    // An unreadable stream is written back verbatim and needs the dictionary exactly as it is.
+                    return false;
+                }
+                continue;
+            }
+            ProfileRules rules = profile.getRules();
+            decodedIds.addAll(Arrays.asList(rules.getExactItems()));
+            decodedIds.addAll(rules.getKeepLimits().keySet());
+        }
+        int dead = 0;
+        for (int i = 0; i < carried.length; i++) {
+            if (!live[i] && !decodedIds.contains(carried[i])) {
+                dead++;
+            }
+        }
+        return dead >= MIN_DEAD_ENTRIES && dead * 2 > carried.length;
+    }
+
+    /**
+     * Returns the approximate serialized size measured when this was encoded.
+     *
+     * @return bytes
+     */
+    long getApproximateBytes() {
+        return approximateBytes;
+    }
+
+    /**
+     * Decodes the active profile and wraps every other stream in a lazily decoded profile.
+     *
+     * @param activeProfileName name of the profile to decode now
+     * @return profiles by name, in stored order
+     * @throws IllegalArgumentException when the encoding is unsupported or the active stream is malformed
+     */
+    @NonNullDecl
+    Map<String, AutoTrashPlayerSettings.AutoTrashProfile> decode(String activeProfileName) {
+        if (encoding != ENCODING_VERSION) {
+            throw new IllegalArgumentException("Unsupported packed profile encoding " + encoding);
+        }
+        long startNanos = System.nanoTime();
+        String[] ids = dictionary == null ? new String[0] : dictionary;
+        Map<String, AutoTrashPlayerSettings.AutoTrashProfile> decoded = new LinkedHashMap<>();
+        if (profiles == null) {
+            return decoded;
+        }
+        // A missing or unknown active name falls back to the first profile, so decode that one eagerly instead.
+        String eager = activeProfileName != null && profiles.containsKey(activeProfileName) ? activeProfileName
+                : profiles.isEmpty() ? null : profiles.keySet().iterator().next();
+        long bytes = 0;
+        for (String id : ids) {
+            bytes += id == null ? 0 : id.length() + 3;
+        }
+        for (Map.Entry<String, String> entry : profiles.entrySet()) {
+            String stream = entry.getValue() == null ? "" : entry.getValue();
+            bytes += stream.length();
+            if (entry.getKey().equals(eager)) {
+                decoded.put(entry.getKey(), AutoTrashPlayerSettings.AutoTrashProfile.of(decodeRules(stream, ids)));
+            } else {
+                decoded.put(entry.getKey(), AutoTrashPlayerSettings.AutoTrashProfile.packed(stream, ids));
+                AutoTrashMetrics.PROFILES_DEFERRED.increment();
+            }
+        }
+        approximateBytes = bytes;
+        AutoTrashMetrics.recordProfileDecode(System.nanoTime() - startNanos);
+        return decoded;
+    }
+
+    /**
+     * Decodes one profile stream.
+     *
+     * @param stream Base64 profile stream
+     * @param ids dictionary the stream refers to
+     * @return decoded rules
+     * @throws IllegalArgumentException when the stream is malformed
+     */
+    @NonNullDecl
+    static ProfileRules decodeRules(@NonNullDecl String stream, @NonNullDecl String[] ids) {
+        Decoder decoder = new Decoder(Base64.getDecoder().decode(stream), ids);
+        String[] exactItems = decoder.readRefs();
+        String[] patterns = decoder.readStrings();
+        String[] categories = decoder.readStrings();
+        int keepCount = decoder.readCount();
+        Map<String, Integer> keepLimits = new LinkedHashMap<>();
+        for (int i = 0; i < keepCount; i++) {
+            String id = decoder.readRef();
+            keepLimits.put(id, unzigzag(decoder.readVarint()));
+        }
+        decoder.expectEnd();
+        return ProfileRules.EMPTY.withExactItems(exactItems).withPatterns(patterns).withCategories(categories).withKeepLimits(keepLimits);
+    }
+
+    /**
+     * Estimates the size the same rules take as plain string lists, for the size comparison metric.
+     *
+     * @param rules rules to measure
+     * @return approximate serialized bytes
+     */
+    private static long plainSize(@NonNullDecl ProfileRules rules) {
+        long bytes = 0;
+        for (String[] values : new String[][] {rules.getExactItems(), rules.getPatterns(), rules.getCategories()}) {
+            for (String value : values) {
+                bytes += (value == null ? 4 : value.length()) + 3;
+            }
+        }
+        for (Map.Entry<String, Integer> limit : rules.getKeepLimits().entrySet()) {
+            bytes += limit.getKey().length() + 3 + String.valueOf(limit.getValue()).length() + 1;
+        }
+        return bytes;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Growable byte buffer that assigns dictionary positions on first use.
+     */
+    private static final class Encoder {
+
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> positions = new HashMap<>();
+        private byte[] buffer = new byte[256];
+        private int length;
+
+        /**
+         * Starts the dictionary with an existing one so streams packed against it stay valid.
+         *
+         * @param ids existing dictionary
+         */
+        private void seed(@NonNullDecl String[] ids) {
+            for (String id : ids) {
+                positions.putIfAbsent(id, dictionary.size());
+                dictionary.add(id);
+            }
+        }
+
+        /**
+         * Encodes one profile into a Base64 stream.
+         *
+         * @param rules profile rules
+         * @return Base64 stream
+         */
+        @NonNullDecl
+        private String encode(@NonNullDecl ProfileRules rules) {
+            length = 0;
+            writeRefs(rules.getExactItems());
+            writeStrings(rules.getPatterns());
+            writeStrings(rules.getCategories());
+            Map<String, Integer> keepLimits = rules.getKeepLimits();
+            writeVarint(keepLimits.size());
+            for (Map.Entry<String, Integer> limit : keepLimits.entrySet()) {
+                writeRef(limit.getKey());
+                writeVarint(zigzag(limit.getValue()));
+            }
+            return Base64.getEncoder().withoutPadding().encodeToString(Arrays.copyOf(buffer, length));
+        }
+
+        private void writeRefs(@NonNullDecl String[] ids) {
+            writeVarint(ids.length);
+            for (String id : ids) {
+                writeRef(id);
+            }
+        }
+
+        private void writeRef(String id) {
+            if (id == null || !ItemModule.exists(id)) {
+                // Unknown ids keep their exact text.
+                writeVarint(0);
+                writeString(id);
+                return;
+            }
+            Integer position = positions.get(id);
+            if (position == null) {
+                position = dictionary.size();
+                dictionary.add(id);
+                positions.put(id, position);
+            }
+            writeVarint(position + 1);
+        }
+
+        private void writeStrings(@NonNullDecl String[] values) {
+            writeVarint(values.length);
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        private void writeString(String value) {
+            if (value == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length + 1);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        private void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+    }
+
+    /**
+     * Bounds-checked reader over one profile stream.
+     */
+    private static final class Decoder {
+
+        private final byte[] data;
+        private final String[] dictionary;
+        private int position;
+
+        private Decoder(@NonNullDecl byte[] data, @NonNullDecl String[] dictionary) {
+            this.data = data;
+            this.dictionary = dictionary;
+        }
+
+        @NonNullDecl
+        private String[] readRefs() {
+            String[] ids = new String[readCount()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = readRef();
+            }
+            return ids;
+        }
+
+        /**
+         * Walks a whole profile stream and marks every dictionary position it refers to.
+         *
+         * @param live marks by dictionary position
+         */
+        private void markRefs(@NonNullDecl boolean[] live) {
+            int exactCount = readCount();
+            for (int i = 0; i < exactCount; i++) {
+                markRef(live);
+            }
+            readStrings();
+            readStrings();
+            int keepCount = readCount();
+            for (int i = 0; i < keepCount; i++) {
+                markRef(live);
+                readVarint();
+            }
+            expectEnd();
+        }
+
+        private void markRef(@NonNullDecl boolean[] live) {
+            int ref = readVarint();
+            if (ref == 0) {
+                readString();
+                return;
+            }
+            if (ref < 0 || ref > dictionary.length) {
+                throw new IllegalArgumentException("Dictionary reference " + ref + " out of range");
+            }
+            live[ref - 1] = true;
+        }
+
+        private String readRef() {
+            int ref = readVarint();
+            if (ref == 0) {
+                return readString();
+            }
+            if (ref < 0 || ref > dictionary.length) {
+                throw new IllegalArgumentException("Dictionary reference " + ref + " out of range");
+            }
+            return dictionary[ref - 1];
+        }
+
+        @NonNullDecl
+        private String[] readStrings() {
+            String[] values = new String[readCount()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readString();
+            }
+            return values;
+        }
+
+        private String readString() {
+            int header = readVarint();
+            if (header == 0) {
+                return null;
+            }
+            if (header < 0) {
+                throw new IllegalArgumentException("String header " + header + " out of range");
+            }
+            int size = header - 1;
+            if (size > data.length - position) {
+                throw new IllegalArgumentException("String length " + size + " exceeds stream");
+            }
+            String value = new String(data, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        /** Reads a list length, rejecting counts the remaining bytes could not hold. */
+        private int readCount() {
+            int count = readVarint();
+            if (count < 0 || count > data.length - position) {
+                throw new IllegalArgumentException("Count " + count + " exceeds stream");
+            }
+            return count;
+        }
+
+        private int readVarint() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                if (position >= data.length) {
+                    throw new IllegalArgumentException("Truncated varint");
+                }
+                byte next = data[position++];
+                value |= (next & 0x7F) << shift;
+                if ((next & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Varint too long");
+        }
+
+        private void expectEnd() {
+            if (position != data.length) {
+                throw new IllegalArgumentException((data.length - position) + " trailing bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package me.clutchy.hytale.autotrash.settings;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
+
+/**
+ * Immutable rule set of a profile, shared by every profile with identical content.
+ *
+ * <p>Instances are value objects: equality covers every rule list in order, so an interned instance serializes exactly like the lists
+ * it replaced. Edits never mutate an instance; they build a new one through the {@code with*} methods. The compiled matcher is cached
+ * on the instance, so identical profiles across players compile once.
+ */
+public final class ProfileRules {
+
+    /** Rule set with no rules. */
+    public static final ProfileRules EMPTY = new ProfileRules(new String[0], new String[0], new String[0], new String[0], new int[0]);
+
+    private final String[] exactItems;
+    private final String[] patterns;
+    private final String[] categories;
+    private final String[] keepIds;
+    private final int[] keepQuantities;
+    private final Map<String, Integer> keepLimits;
+    private final int hash;
+    /** Compiled matcher, built on first use. */
+    private volatile ItemMatcher matcher;
+
+    private ProfileRules(@NonNullDecl String[] exactItems, @NonNullDecl String[] patterns, @NonNullDecl String[] categories,
+            @NonNullDecl String[] keepIds, @NonNullDecl int[] keepQuantities) {
+        this.exactItems = exactItems;
+        this.patterns = patterns;
+        this.categories = categories;
+        this.keepIds = keepIds;
+        this.keepQuantities = keepQuantities;
+        Map<String, Integer> limits = new LinkedHashMap<>();
+        for (int i = 0; i < keepIds.length; i++) {
+            limits.put(keepIds[i], keepQuantities[i]);
+        }
+        this.keepLimits = Collections.unmodifiableMap(limits);
+        int result = Arrays.hashCode(exactItems);
+        result = 31 * result + Arrays.hashCode(patterns);
+        result = 31 * result + Arrays.hashCode(categories);
+        result = 31 * result + Arrays.hashCode(keepIds);
+        this.hash = 31 * result + Arrays.hashCode(keepQuantities);
+    }
+
+    /**
+     * Returns a copy with the exact item ids replaced.
+     *
+     * @param exactItems exact item ids, copied
+     * @return updated rule set
+     */
+    @NonNullDecl
+    public ProfileRules withExactItems(String[] exactItems) {
+        return new ProfileRules(copyOf(exactItems), patterns, categories, keepIds, keepQuantities);
+    }
+
+    /**
+     * Returns a copy with the wildcard patterns replaced.
+     *
+     * @param patterns glob patterns, copied
+     * @return updated rule set
+     */
+    @NonNullDecl
+    public ProfileRules withPatterns(String[] patterns) {
+        return new ProfileRules(exactItems, copyOf(patterns), categories, keepIds, keepQuantities);
+    }
+
+    /**
+     * Returns a copy with the category rules replaced.
+     *
+     * @param categories category rules, copied
+     * @return updated rule set
+     */
+    @NonNullDecl
+    public ProfileRules withCategories(String[] categories) {
+        return new ProfileRules(exactItems, patterns, copyOf(categories), keepIds, keepQuantities);
+    }
+
+    /**
+     * Returns a copy with the keep limits replaced, preserving their iteration order.
+     *
+     * @param keepLimits quantity to keep per item id
+     * @return updated rule set
+     */
+    @NonNullDecl
+    public ProfileRules withKeepLimits(Map<String, Integer> keepLimits) {
+        if (keepLimits == null || keepLimits.isEmpty()) {
+            return new ProfileRules(exactItems, patterns, categories, new String[0], new int[0]);
+        }
+        String[] ids = new String[keepLimits.size()];
+        int[] quantities = new int[ids.length];
+        int count = 0;
+        for (Map.Entry<String, Integer> entry : keepLimits.entrySet()) {
+            if (entry.getKey() == null || entry.getValue() == null) {
+                continue;
+            }
+            ids[count] = entry.getKey();
+            quantities[count++] = entry.getValue();
+        }
+        return new ProfileRules(exactItems, patterns, categories, Arrays.copyOf(ids, count), Arrays.copyOf(quantities, count));
+    }
+
+    /**
+     * Returns the exact item ids; shared, must not be modified.
+     *
+     * @return exact item ids
+     */
+    @NonNullDecl
+    public String[] getExactItems() {
+        return exactItems;
+    }
+
+    /**
+     * Returns the wildcard patterns; shared, must not be modified.
+     *
+     * @return glob patterns
+     */
+    @NonNullDecl
+    public String[] getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Returns the category rules; shared, must not be modified.
+     *
+     * @return category rules
+     */
+    @NonNullDecl
+    public String[] getCategories() {
+        return categories;
+    }
+
+    /**
+     * Returns the keep limits in insertion order.
+     *
+     * @return unmodifiable quantity to keep per item id
+     */
+    @NonNullDecl
+    public Map<String, Integer> getKeepLimits() {
+        return keepLimits;
+    }
+
+    /**
+     * Returns the compiled matcher, compiling it on first use.
+     *
+     * @return compiled matcher
+     */
+    @NonNullDecl
+    public ItemMatcher getMatcher() {
+        ItemMatcher compiled = matcher;
+        if (compiled == null) {
+            // Racing compiles produce equivalent matchers; the last write wins.
+            compiled = ItemMatcher.compile(exactItems, patterns, categories, keepLimits);
+            matcher = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * Estimates the heap retained by this rule set's lists, excluding the compiled matcher.
+     *
+     * @return approximate size in bytes
+     */
+    long estimateBytes() {
+        long bytes = 32L;
+        bytes += estimateBytes(exactItems);
+        bytes += estimateBytes(patterns);
+        bytes += estimateBytes(categories);
+        bytes += estimateBytes(keepIds);
+        bytes += 16L + 4L * keepQuantities.length;
+        // LinkedHashMap view: table plus one entry and one boxed value per limit.
+        bytes += keepIds.length == 0 ? 56L : 56L + 56L * keepIds.length;
+        return bytes;
+    }
+
+    private static long estimateBytes(@NonNullDecl String[] values) {
+        long bytes = 16L + 4L * values.length;
+        for (String value : values) {
+            bytes += value == null ? 0L : 40L + value.length();
+        }
+        return bytes;
+    }
+
+    private static String[] copyOf(String[] values) {
+        return values == null ? new String[0] : Arrays.copyOf(values, values.length);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ProfileRules rules) || hash != rules.hash) {
+            return false;
+        }
+        return Arrays.equals(exactItems, rules.exactItems)
+                && Arrays.equals(patterns, rules.patterns)
+                && Arrays.equals(categories, rules.categories)
+                && Arrays.equals(keepIds, rules.keepIds)
+                && Arrays.equals(keepQuantities, rules.keepQuantities);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,79 @@
+package me.clutchy.hytale.autotrash.settings;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+/**
+ * Weak intern pool that lets identical profile rule sets share one instance.
+ *
+ * <p>Players often copy the same community list, so the pool maps each distinct {@link ProfileRules} content to a canonical instance
+ * and profiles point at it. Entries are weakly referenced and disappear once no profile uses them. Profiles that interned a rule set are
+ * tracked weakly as well, so {@link #report()} can compare total profiles against unique rule sets.
+ */
+public final class ProfileRulesPool {
+
+    private static final Map<ProfileRules, WeakReference<ProfileRules>> POOL = new WeakHashMap<>();
+    private static final Set<AutoTrashPlayerSettings.AutoTrashProfile> PROFILES = Collections.newSetFromMap(new WeakHashMap<>());
+    private static long lookups;
+    private static long hits;
+
+    private ProfileRulesPool() {
+    }
+
+    /**
+     * Returns the canonical instance for a rule set and records the profile that uses it.
+     *
+     * @param rules rule set to intern
+     * @param owner profile that will hold the result
+     * @return canonical rule set equal to {@code rules}
+     */
+    @NonNullDecl
+    static synchronized ProfileRules intern(@NonNullDecl ProfileRules rules, @NonNullDecl AutoTrashPlayerSettings.AutoTrashProfile owner) {
+        PROFILES.add(owner);
+        lookups++;
+        WeakReference<ProfileRules> ref = POOL.get(rules);
+        ProfileRules canonical = ref == null ? null : ref.get();
+        if (canonical != null) {
+            hits++;
+            return canonical;
+        }
+        POOL.put(rules, new WeakReference<>(rules));
+        return rules;
+    }
+
+    /**
+     * Summarizes how much the pool shares across live profiles.
+     *
+     * <p>Profiles that are no longer referenced but not yet collected are still counted.
+     *
+     * @return single-line heap report
+     */
+    @NonNullDecl
+    public static synchronized String report() {
+        Map<ProfileRules, Boolean> unique = new IdentityHashMap<>();
+        long total = 0;
+        long unsharedBytes = 0;
+        for (AutoTrashPlayerSettings.AutoTrashProfile profile : PROFILES) {
+            ProfileRules rules = profile.getRules();
+            total++;
+            unsharedBytes += rules.estimateBytes();
+            unique.put(rules, Boolean.TRUE);
+        }
+        long retainedBytes = 0;
+        for (ProfileRules rules : unique.keySet()) {
+            retainedBytes += rules.estimateBytes();
+        }
+        return "profiles(total=" + total
+                + ", unique=" + unique.size()
+                + ", pooled=" + POOL.size()
+                + ", internHits=" + hits + "/" + lookups
+                + ", retainedKb=" + retainedBytes / 1024
+                + ", savedKb=" + (unsharedBytes - retainedBytes) / 1024 + ")";
+    }
+}
@@ -0,0 +1,157 @@
+package me.clutchy.hytale.autotrash.system;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.Universe;
+import com.hypixel.hytale.server.core.universe.world.World;
+
+import me.clutchy.hytale.autotrash.config.RuntimeConfig;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
+
+/**
+ * Server-wide purge of matching items from every online player.
+ *
+ * <p>One task is queued per world through {@link World#execute(Runnable)}, so worlds are purged in parallel on their own threads and
+ * each player's inventory is only touched by the thread that owns it. A world task stops once it has used its per-tick budget and
+ * re-queues itself for the remaining players, so a large purge is spread over several ticks instead of stalling one.
+ */
+public final class AdminPurge {
+
+    private AdminPurge() {
+    }
+
+    /**
+     * Starts a purge on every loaded world.
+     *
+     * @param matcher compiled matcher selecting the items to purge
+     * @param description rule text shown to affected players
+     * @param reporter receives per-world progress and the final total; called from world threads, one call at a time
+     * @return number of worlds the purge was queued on
+     */
+    public static int start(@NonNullDecl ItemMatcher matcher, @NonNullDecl String description, @NonNullDecl Consumer<String> reporter) {
+        Collection<World> worlds = Universe.get().getWorlds().values();
+        if (worlds.isEmpty() || matcher.isEmpty()) {
+            return 0;
+        }
+        Totals totals = new Totals(worlds.size(), reporter);
+        for (World world : worlds) {
+            WorldPurge purge = new WorldPurge(world, matcher, description, totals);
+            world.execute(purge);
+        }
+        return worlds.size();
+    }
+
+    /**
+     * Purge of one world, resumed tick after tick until every player has been scanned.
+     */
+    private static final class WorldPurge implements Runnable {
+
+        private final World world;
+        private final ItemMatcher matcher;
+        private final String description;
+        private final Totals totals;
+        private List<Player> players;
+        private int next;
+        private int ticks;
+        private long nanos;
+        private int items;
+        private int slots;
+        private int affectedPlayers;
+
+        private WorldPurge(@NonNullDecl World world, @NonNullDecl ItemMatcher matcher, @NonNullDecl String description, @NonNullDecl Totals totals) {
+            this.world = world;
+            this.matcher = matcher;
+            this.description = description;
+            this.totals = totals;
+        }
+
+        @Override
+        public void run() {
+            long startNanos = System.nanoTime();
+            if (players == null) {
+                // Snapshot on the world thread; players joining mid-purge are not included.
+                players = new ArrayList<>(world.getPlayers());
+            }
+            ticks++;
+            // Read per slice so a config reload applies to purges already in flight.
+            long budget = RuntimeConfig.current().getPurgeTickBudgetMillis() * 1_000_000L;
+            while (next < players.size()) {
+                purge(players.get(next++));
+                if (System.nanoTime() - startNanos >= budget) {
+                    break;
+                }
+            }
+            nanos += System.nanoTime() - startNanos;
+
+            if (next < players.size()) {
+                totals.report("Purge " + world.getName() + ": " + next + "/" + players.size() + " players scanned.");
+                world.execute(this);
+                return;
+            }
+            totals.report("Purge " + world.getName() + " done: " + items + " items from " + slots + " slots across " + affectedPlayers
+                    + "/" + players.size() + " players in " + nanos / 1_000_000 + "ms over " + ticks + " ticks.");
+            totals.complete(players.size(), affectedPlayers, items, slots);
+        }
+
+        private void purge(@NonNullDecl Player player) {
+            InventoryScan.Result result = InventoryScan.scan(player.getInventory().getCombinedEverything(), matcher, null, false);
+            if (result.isEmpty()) {
+                return;
+            }
+            // The purge bypasses the listener, so any keep totals for this player are stale now.
+            AutoTrashSystem.invalidateItemCounts(player);
+            affectedPlayers++;
+            items += result.getTotalQuantity();
+            slots += result.getSlotCount();
+            player.sendMessage(Message.raw("An administrator purged " + result.getTotalQuantity() + " " + description + " from your inventory."));
+        }
+    }
+
+    /**
+     * Totals across worlds, reported once the last world finishes.
+     */
+    private static final class Totals {
+
+        private final AtomicInteger remainingWorlds;
+        private final Consumer<String> reporter;
+        private final AtomicLong players = new AtomicLong();
+        private final AtomicLong affectedPlayers = new AtomicLong();
+        private final AtomicLong items = new AtomicLong();
+        private final AtomicLong slots = new AtomicLong();
+
+        private Totals(int worlds, @NonNullDecl Consumer<String> reporter) {
+            this.remainingWorlds = new AtomicInteger(worlds);
+            this.reporter = reporter;
+        }
+
+        private void complete(int worldPlayers, int worldAffected, int worldItems, int worldSlots) {
+            players.addAndGet(worldPlayers);
+            affectedPlayers.addAndGet(worldAffected);
+            items.addAndGet(worldItems);
+            slots.addAndGet(worldSlots);
+            if (remainingWorlds.decrementAndGet() == 0) {
+                report("Purge complete: " + items.get() + " items from " + slots.get() + " slots across " + affectedPlayers.get() + "/"
+                        + players.get() + " players.");
+            }
+        }
+
+        /**
+         * Hands a message to the reporter. Worlds run on their own threads, so calls are serialized here and the reporter never sees
+         * two messages at once.
+         *
+         * @param message progress message
+         */
+        private synchronized void report(@NonNullDecl String message) {
+            reporter.accept(message);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package me.clutchy.hytale.autotrash.system;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters for the auto-trash inventory listener, settings persistence, config reloads and item searches.
+ *
+ * <p>Counters are striped {@link LongAdder}s so world threads can bump them without contending on a shared cache line.
+ */
+public final class AutoTrashMetrics {
+
+    /** Inventory events received by the listener. */
+    public static final LongAdder EVENTS_RECEIVED = new LongAdder();
+    /** Re-entrant events fired by AutoTrash's own removals and skipped by the guard. */
+    public static final LongAdder EVENTS_SKIPPED_SELF = new LongAdder();
+    /** Events rejected because the entity is not a player. */
+    public static final LongAdder EVENTS_REJECTED_NOT_PLAYER = new LongAdder();
+    /** Events rejected because the player has auto-trash disabled or no rules. */
+    public static final LongAdder EVENTS_REJECTED_DISARMED = new LongAdder();
+    /** Events rejected because the container is not part of the player inventory. */
+    public static final LongAdder EVENTS_REJECTED_FOREIGN_CONTAINER = new LongAdder();
+    /** Events that were evaluated against the player's rules. */
+    public static final LongAdder EVENTS_EVALUATED = new LongAdder();
+    /** Events queued for the tick engine instead of being evaluated inline. */
+    public static final LongAdder EVENTS_DEFERRED = new LongAdder();
+    /** Dirty slots evaluated by the tick engine after merging a tick's transactions. */
+    public static final LongAdder SLOTS_EVALUATED = new LongAdder();
+    /** Guarded removal batches, one per container per pass that trashed something. */
+    public static final LongAdder REMOVAL_BATCHES = new LongAdder();
+    /** Slots cleared by removal batches. */
+    public static final LongAdder SLOTS_REMOVED = new LongAdder();
+    /** Pickups consumed before reaching the inventory. */
+    public static final LongAdder PICKUPS_INTERCEPTED = new LongAdder();
+    /** Item quantity consumed by pickup interception, which never entered an inventory container. */
+    public static final LongAdder PICKUP_QUANTITY_INTERCEPTED = new LongAdder();
+    /** Item quantity queued for notification across all trash paths. */
+    public static final LongAdder ITEMS_TRASHED = new LongAdder();
+    /** Keep-rule count index rebuilds (first use after login or a rule change, or after a desync). */
+    public static final LongAdder COUNT_INDEX_REBUILDS = new LongAdder();
+    /** Count index desyncs detected from a total going negative. */
+    public static final LongAdder COUNT_INDEX_DESYNCS = new LongAdder();
+    /** Slots partially trashed down to a keep limit. */
+    public static final LongAdder SLOTS_TRIMMED = new LongAdder();
+    /** Whole-inventory scans that matched at least one slot, dry runs included. */
+    public static final LongAdder SCANS = new LongAdder();
+    /** Notification packets sent after coalescing. */
+    public static final LongAdder NOTIFICATION_PACKETS = new LongAdder();
+    /** Settings saves that requested the player's packed profiles. */
+    public static final LongAdder SETTINGS_SAVES = new LongAdder();
+    /** Settings saves that reused the cached encoding because nothing changed. */
+    public static final LongAdder SETTINGS_SAVE_CACHE_HITS = new LongAdder();
+    /** Approximate packed profile bytes handed to the serializer across saves. */
+    public static final LongAdder SETTINGS_BYTES_WRITTEN = new LongAdder();
+    /** Saves that packed the player's profiles, i.e. cache misses. */
+    public static final LongAdder PROFILE_ENCODES = new LongAdder();
+    /** Total nanoseconds spent packing profiles. */
+    public static final LongAdder PROFILE_ENCODE_NANOS = new LongAdder();
+    /** Approximate bytes written for packed profiles, dictionary included. */
+    public static final LongAdder PROFILE_PACKED_BYTES = new LongAdder();
+    /** Approximate bytes the same profiles take as plain string lists. */
+    public static final LongAdder PROFILE_PLAIN_BYTES = new LongAdder();
+    /** Settings loads that unpacked the player's profiles; only the active one is decoded at load. */
+    public static final LongAdder PROFILE_DECODES = new LongAdder();
+    /** Total nanoseconds spent unpacking profiles. */
+    public static final LongAdder PROFILE_DECODE_NANOS = new LongAdder();
+    /** Inactive profiles left packed at load instead of being decoded. */
+    public static final LongAdder PROFILES_DEFERRED = new LongAdder();
+    /** Packed profiles decoded later, on first use. */
+    public static final LongAdder PROFILES_LAZY_DECODED = new LongAdder();
+    /** Config file reloads that were compiled and published. */
+    public static final LongAdder CONFIG_RELOADS = new LongAdder();
+    /** Config file reloads rejected by parsing or validation, keeping the previous config. */
+    public static final LongAdder CONFIG_RELOAD_FAILURES = new LongAdder();
+    /** Total nanoseconds spent loading, compiling and publishing config reloads. */
+    public static final LongAdder CONFIG_RELOAD_NANOS = new LongAdder();
+    /** Item searches run from the configuration page. */
+    public static final LongAdder ITEM_SEARCHES = new LongAdder();
+    /** Total nanoseconds spent answering item searches. */
+    public static final LongAdder ITEM_SEARCH_NANOS = new LongAdder();
+    /** Processing passes, one per evaluated event (event engine) or per dirty player tick (tick engine). */
+    public static final LongAdder PASSES = new LongAdder();
+    /** Total nanoseconds spent in processing passes. */
+    public static final LongAdder PASS_NANOS = new LongAdder();
+
+    private AutoTrashMetrics() {
+    }
+
+    /**
+     * Records the duration of one processing pass.
+     *
+     * @param nanos elapsed nanoseconds
+     */
+    public static void recordPass(long nanos) {
+        PASSES.increment();
+        PASS_NANOS.add(nanos);
+    }
+
+    /**
+     * Records one settings save.
+     *
+     * @param cacheHit true when the cached encoding was reused
+     * @param bytes approximate packed bytes written
+     */
+    public static void recordSettingsSave(boolean cacheHit, long bytes) {
+        SETTINGS_SAVES.increment();
+        if (cacheHit) {
+            SETTINGS_SAVE_CACHE_HITS.increment();
+        }
+        SETTINGS_BYTES_WRITTEN.add(bytes);
+    }
+
+    /**
+     * Records one packing of a player's profiles.
+     *
+     * @param nanos elapsed nanoseconds
+     * @param packedBytes approximate packed size
+     * @param plainBytes approximate size as plain string lists
+     */
+    public static void recordProfileEncode(long nanos, long packedBytes, long plainBytes) {
+        PROFILE_ENCODES.increment();
+        PROFILE_ENCODE_NANOS.add(nanos);
+        PROFILE_PACKED_BYTES.add(packedBytes);
+        PROFILE_PLAIN_BYTES.add(plainBytes);
+    }
+
+    /**
+     * Records one unpacking of a player's profiles.
+     *
+     * @param nanos elapsed nanoseconds
+     */
+    public static void recordProfileDecode(long nanos) {
+        PROFILE_DECODES.increment();
+        PROFILE_DECODE_NANOS.add(nanos);
+    }
+
+    /**
+     * Records the duration of one successful config reload.
+     *
+     * @param nanos elapsed nanoseconds
+     */
+    public static void recordConfigReload(long nanos) {
+        CONFIG_RELOADS.increment();
+        CONFIG_RELOAD_NANOS.add(nanos);
+    }
+
+    /**
+     * Records the duration of one item search.
+     *
+     * @param nanos elapsed nanoseconds
+     */
+    public static void recordItemSearch(long nanos) {
+        ITEM_SEARCHES.increment();
+        ITEM_SEARCH_NANOS.add(nanos);
+    }
+
+    /**
+     * Formats the counters as a single human-readable line.
+     *
+     * @return counter summary
+     */
+    public static String summary() {
+        long passes = PASSES.sum();
+        long batches = REMOVAL_BATCHES.sum();
+        long selfEvents = EVENTS_SKIPPED_SELF.sum();
+        long passNanos = PASS_NANOS.sum();
+        long reloads = CONFIG_RELOADS.sum();
+        long saves = SETTINGS_SAVES.sum();
+        long encodes = PROFILE_ENCODES.sum();
+        long decodes = PROFILE_DECODES.sum();
+        long searches = ITEM_SEARCHES.sum();
+        return "events=" + EVENTS_RECEIVED.sum()
+                + " evaluated=" + EVENTS_EVALUATED.sum()
+                + " deferred=" + EVENTS_DEFERRED.sum()
+                + " dirtySlots=" + SLOTS_EVALUATED.sum()
+                + " rejected(notPlayer=" + EVENTS_REJECTED_NOT_PLAYER.sum()
+                + ", disarmed=" + EVENTS_REJECTED_DISARMED.sum()
+                + ", foreignContainer=" + EVENTS_REJECTED_FOREIGN_CONTAINER.sum() + ")"
+                + " removals(batches=" + batches
+                + ", slots=" + SLOTS_REMOVED.sum()
+                + ", selfEvents=" + selfEvents
+                + ", selfEventsPerBatch=" + (batches == 0 ? 0 : selfEvents / batches) + ")"
+                + " keep(trimmed=" + SLOTS_TRIMMED.sum()
+                + ", rebuilds=" + COUNT_INDEX_REBUILDS.sum()
+                + ", desyncs=" + COUNT_INDEX_DESYNCS.sum() + ")"
+                + " scans=" + SCANS.sum()
+                + " pickups(intercepted=" + PICKUPS_INTERCEPTED.sum()
+                + ", quantity=" + PICKUP_QUANTITY_INTERCEPTED.sum() + ")"
+                + " notifications(items=" + ITEMS_TRASHED.sum()
+                + ", packets=" + NOTIFICATION_PACKETS.sum() + ")"
+                + " saves(total=" + saves
+                + ", cacheHitPct=" + (saves == 0 ? 0 : SETTINGS_SAVE_CACHE_HITS.sum() * 100 / saves)
+                + ", writtenKb=" + SETTINGS_BYTES_WRITTEN.sum() / 1024 + ")"
+                + " persist(encodes=" + encodes
+                + ", encodeAvgUs=" + (encodes == 0 ? 0 : PROFILE_ENCODE_NANOS.sum() / encodes / 1_000)
+                + ", packedKb=" + PROFILE_PACKED_BYTES.sum() / 1024
+                + ", plainKb=" + PROFILE_PLAIN_BYTES.sum() / 1024
+                + ", decodes=" + decodes
+                + ", decodeAvgUs=" + (decodes == 0 ? 0 : PROFILE_DECODE_NANOS.sum() / decodes / 1_000)
+                + ", deferred=" + PROFILES_DEFERRED.sum()
+                + ", lazyDecoded=" + PROFILES_LAZY_DECODED.sum() + ")"
+                + " config(reloads=" + reloads
+                + ", failures=" + CONFIG_RELOAD_FAILURES.sum()
+                + ", avgUs=" + (reloads == 0 ? 0 : CONFIG_RELOAD_NANOS.sum() / reloads / 1_000) + ")"
+                + " search(queries=" + searches
+                + ", avgUs=" + (searches == 0 ? 0 : ITEM_SEARCH_NANOS.sum() / searches / 1_000) + ")"
+                + " passes=" + passes
+                + " passTotalMs=" + passNanos / 1_000_000
+                + " passAvgUs=" + (passes == 0 ? 0 : passNanos / passes / 1_000);
+    }
+}
@@ -0,0 +1,98 @@
+package me.clutchy.hytale.autotrash.system;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.event.events.ecs.InteractivelyPickupItemEvent;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import me.clutchy.hytale.autotrash.config.RuntimeConfig;
+import me.clutchy.hytale.autotrash.rule.ItemIndex;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
+import me.clutchy.hytale.autotrash.settings.AutoTrashPlayerSettings;
+import me.clutchy.hytale.autotrash.settings.AutoTrashSnapshot;
+
+/**
+ * Trashes matching interactive (use-key) pickups before they reach the inventory.
+ *
+ * <p>When enabled, a matching interactive pickup has its stack replaced with an empty one, so nothing is inserted into (and later
+ * removed from) an item container. Automatic item-entity pickups, such as drops collected by walking over them at farms and mob
+ * grinders, fire no pickup event that a plugin can intercept, so they still go through the inventory listener like every other
+ * insertion path.
+ */
+public final class AutoTrashPickupSystem extends EntityEventSystem<EntityStore, InteractivelyPickupItemEvent> {
+
+    /** Component type used for player settings. */
+    private final ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType;
+    /** Player entities, with or without auto-trash settings, so global rules reach players who never opened AutoTrash. */
+    private final Query<EntityStore> query;
+
+    /**
+     * Creates the pickup interception system.
+     *
+     * @param settingsComponentType component type for player settings
+     */
+    public AutoTrashPickupSystem(@NonNullDecl ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType) {
+        super(InteractivelyPickupItemEvent.class);
+        this.settingsComponentType = settingsComponentType;
+        this.query = Player.getComponentType();
+    }
+
+    /**
+     * Returns the query selecting players.
+     *
+     * @return entity query
+     */
+    @NonNullDecl
+    @Override
+    public Query<EntityStore> getQuery() {
+        return query;
+    }
+
+    /**
+     * Consumes a pickup whose stack matches the player's active profile or the server's global rules.
+     *
+     * @param index entity index within the chunk
+     * @param archetypeChunk chunk holding the entity
+     * @param store entity store
+     * @param commandBuffer command buffer for deferred changes
+     * @param event pickup event
+     */
+    @Override
+    public void handle(int index, @NonNullDecl ArchetypeChunk<EntityStore> archetypeChunk, @NonNullDecl Store<EntityStore> store,
+            @NonNullDecl CommandBuffer<EntityStore> commandBuffer, @NonNullDecl InteractivelyPickupItemEvent event) {
+        if (!RuntimeConfig.current().isInterceptPickup() || event.isCancelled()) {
+            return;
+        }
+        AutoTrashPlayerSettings settings = archetypeChunk.getComponent(index, settingsComponentType);
+        AutoTrashSnapshot snapshot = settings == null ? null : settings.getSnapshot();
+        ItemMatcher matcher = snapshot != null ? snapshot.getMatcher() : RuntimeConfig.current().getGlobalRules();
+        if (matcher.isEmpty()) {
+            return;
+        }
+        ItemStack itemStack = event.getItemStack();
+        if (!matcher.matches(itemStack)) {
+            return;
+        }
+        // Keep rules depend on the running inventory total, so those pickups go through the inventory path to be trimmed.
+        if (matcher.hasKeepRules() && matcher.keepLimit(ItemIndex.find(itemStack.getItemId())) != ItemMatcher.NO_LIMIT) {
+            return;
+        }
+
+        // The pickup completes with an empty stack: the item entity is still taken from the world, but nothing reaches a container.
+        event.setItemStack(ItemStack.EMPTY);
+        AutoTrashMetrics.PICKUPS_INTERCEPTED.increment();
+        AutoTrashMetrics.PICKUP_QUANTITY_INTERCEPTED.add(itemStack.getQuantity());
+
+        if (snapshot != null && snapshot.isNotify()) {
+            AutoTrashSystem.queueTrashNotification(settings, itemStack);
+        }
+    }
+}
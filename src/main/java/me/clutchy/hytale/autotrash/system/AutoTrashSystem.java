@@ -1,13 +1,12 @@
 package me.clutchy.hytale.autotrash.system;
 
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
 
 import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.protocol.packets.interface_.NotificationStyle;
 import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.entity.entities.Player;
@@ -20,15 +19,20 @@ import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hypixel.hytale.server.core.util.NotificationUtil;
 
+import me.clutchy.hytale.autotrash.config.AutoTrashConfig;
+import me.clutchy.hytale.autotrash.config.RuntimeConfig;
+import me.clutchy.hytale.autotrash.rule.ItemIndex;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
 import me.clutchy.hytale.autotrash.settings.AutoTrashPlayerSettings;
+import me.clutchy.hytale.autotrash.settings.AutoTrashSnapshot;
 
 /**
  * Handles auto-trashing of configured items based on inventory change events and match rules.
  */
 public final class AutoTrashSystem {
 
-    /** Component type used to resolve player settings. */
-    private static volatile ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType;
+    /** Cached, non-creating settings lookup used by the event hot path. */
+    private static final SettingsResolver SETTINGS = new SettingsResolver();
 
     private AutoTrashSystem() {
     }
@@ -39,7 +43,7 @@ public final class AutoTrashSystem {
      * @param settingsComponentType settings component type
      */
     public static void setSettingsComponentType(@NonNullDecl ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType) {
-        AutoTrashSystem.settingsComponentType = settingsComponentType;
+        SETTINGS.setComponentType(settingsComponentType);
     }
 
     /**
@@ -48,7 +52,24 @@ public final class AutoTrashSystem {
      * @param event the inventory change event
      */
     public static void handleInventoryChange(@NonNullDecl LivingEntityInventoryChangeEvent event) {
+        AutoTrashMetrics.EVENTS_RECEIVED.increment();
+        // Events caused by our own removals carry nothing new to trash.
+        if (RemovalGuard.isActive()) {
+            AutoTrashMetrics.EVENTS_SKIPPED_SELF.increment();
+            return;
+        }
         if (!(event.getEntity() instanceof Player player)) {
+            AutoTrashMetrics.EVENTS_REJECTED_NOT_PLAYER.increment();
+            return;
+        }
+
+        // Cheapest checks first: most players never configure anything.
+        AutoTrashPlayerSettings settings = getSettings(player);
+        AutoTrashSnapshot snapshot = settings == null ? null : settings.getSnapshot();
+        // Players without the component never opened AutoTrash, but the server's global rules still apply to them.
+        ItemMatcher matcher = snapshot != null ? snapshot.getMatcher() : RuntimeConfig.current().getGlobalRules();
+        if (matcher.isEmpty()) {
+            AutoTrashMetrics.EVENTS_REJECTED_DISARMED.increment();
             return;
         }
 
@@ -62,62 +83,226 @@ public final class AutoTrashSystem {
         }
         // Only act on containers that belong to the player inventory.
         if (!player.getInventory().getCombinedEverything().containsContainer(container)) {
+            AutoTrashMetrics.EVENTS_REJECTED_FOREIGN_CONTAINER.increment();
             return;
         }
-
-        AutoTrashPlayerSettings settings = getSettings(player);
         if (settings == null) {
+            // Without settings there are no keep totals, tick queue or notifications, so the global layer is evaluated inline even under
+            // the Tick engine; these players always take the event path.
+            AutoTrashMetrics.EVENTS_EVALUATED.increment();
+            long startNanos = System.nanoTime();
+            removeTrashItems(container, transaction, matcher, null, false);
+            AutoTrashMetrics.recordPass(System.nanoTime() - startNanos);
             return;
         }
-        AutoTrashPlayerSettings.AutoTrashProfile profile = settings.getActiveProfile();
-        if (profile == null) {
+        if (matcher.hasKeepRules()) {
+            trackItemCounts(player, container, transaction, matcher, settings);
+        }
+
+        if (RuntimeConfig.current().getEngine() == AutoTrashConfig.Engine.TICK) {
+            // Defer to the tick engine, which drains each dirty player once per tick.
+            AutoTrashMetrics.EVENTS_DEFERRED.increment();
+            walkTransaction(container, transaction, settings.getPendingChanges().track(container));
+            return;
+        }
+
+        AutoTrashMetrics.EVENTS_EVALUATED.increment();
+        long startNanos = System.nanoTime();
+        removeTrashItems(container, transaction, matcher, settings, snapshot.isNotify());
+        AutoTrashMetrics.recordPass(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Applies a transaction to the player's keep-rule totals, recounting instead when the totals are stale.
+     *
+     * @param player player owning the inventory
+     * @param container the container being modified
+     * @param transaction the inventory transaction driving the change
+     * @param matcher compiled matcher with keep rules
+     * @param settings player settings holding the totals
+     */
+    private static void trackItemCounts(@NonNullDecl Player player, @NonNullDecl ItemContainer container, @NonNullDecl Transaction transaction,
+            @NonNullDecl ItemMatcher matcher, @NonNullDecl AutoTrashPlayerSettings settings) {
+        ItemCounts counts = settings.getItemCounts();
+        if (counts.isCurrent(matcher)) {
+            walkTransaction(container, transaction, counts);
+            return;
+        }
+        // A recount already reflects this transaction.
+        counts.rebuild(player.getInventory().getCombinedEverything(), matcher);
+    }
+
+    /**
+     * Returns the player's keep-rule totals, recounting them if they are stale, or null when no keep rules apply.
+     *
+     * @param player player owning the inventory
+     * @param matcher compiled matcher
+     * @param settings player settings holding the totals
+     * @return current totals or null
+     */
+    private static ItemCounts currentItemCounts(@NonNullDecl Player player, @NonNullDecl ItemMatcher matcher, @NonNullDecl AutoTrashPlayerSettings settings) {
+        if (!matcher.hasKeepRules()) {
+            return null;
+        }
+        ItemCounts counts = settings.getItemCounts();
+        if (!counts.isCurrent(matcher)) {
+            counts.rebuild(player.getInventory().getCombinedEverything(), matcher);
+        }
+        return counts;
+    }
+
+    /**
+     * Drains the player's dirty slots, evaluating each slot once against its final contents, with one removal pass per container and
+     * one notification batch.
+     *
+     * @param player player owning the queue
+     * @param settings player settings holding the queue
+     */
+    public static void processPendingChanges(@NonNullDecl Player player, @NonNullDecl AutoTrashPlayerSettings settings) {
+        PendingInventoryChanges pending = settings.getPendingChanges();
+        if (pending.isEmpty()) {
             return;
         }
-        if (!settings.isEnabled()) {
+        AutoTrashSnapshot snapshot = settings.getSnapshot();
+        if (!snapshot.isArmed()) {
+            pending.clear();
             return;
         }
 
-        removeTrashItems(player, container, transaction, profile, settings);
+        long startNanos = System.nanoTime();
+        ItemMatcher matcher = snapshot.getMatcher();
+        TrashScratch scratch = TrashScratch.acquire(matcher, currentItemCounts(player, matcher, settings));
+        try {
+            for (int i = 0, size = pending.size(); i < size; i++) {
+                DirtySlots dirtySlots = pending.get(i);
+                collectDirtySlots(dirtySlots, scratch);
+                if (scratch.slotCount > 0) {
+                    removeCollectedSlots(dirtySlots.getContainer(), scratch);
+                }
+                scratch.clearSlots();
+            }
+            if (scratch.itemCount > 0 && snapshot.isNotify()) {
+                queueTrashNotifications(settings, scratch);
+            }
+        } finally {
+            scratch.release();
+            pending.clear();
+        }
+        AutoTrashMetrics.recordPass(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Evaluates every dirty slot of a container once against its current contents.
+     *
+     * @param dirtySlots dirty-slot bitmap of the container
+     * @param scratch output buffers for slots and per-item totals
+     */
+    private static void collectDirtySlots(@NonNullDecl DirtySlots dirtySlots, @NonNullDecl TrashScratch scratch) {
+        ItemContainer container = dirtySlots.getContainer();
+        for (int slot = dirtySlots.nextDirtySlot(0); slot >= 0; slot = dirtySlots.nextDirtySlot(slot + 1)) {
+            AutoTrashMetrics.SLOTS_EVALUATED.increment();
+            ItemStack stack = container.getItemStack((short) slot);
+            if (stack == null || ItemStack.isEmpty(stack)) {
+                continue;
+            }
+            int itemIndex = scratch.matcher.matchingIndex(stack.getItemId());
+            if (itemIndex == ItemIndex.UNKNOWN) {
+                continue;
+            }
+            int keepLimit = scratch.matcher.keepLimit(itemIndex);
+            if (keepLimit != ItemMatcher.NO_LIMIT) {
+                int trimmed = scratch.trimToLimit((short) slot, itemIndex, keepLimit, stack.getQuantity());
+                if (trimmed > 0) {
+                    scratch.addTotal(itemIndex, trimmed, stack);
+                }
+                continue;
+            }
+            scratch.addSlot((short) slot);
+            // Only count what arrived this tick, never more than the slot now holds.
+            int added = Math.min(dirtySlots.getAddedQuantity(slot), stack.getQuantity());
+            if (added > 0) {
+                scratch.addTotal(itemIndex, added, stack);
+            }
+        }
+    }
+
+    /**
+     * Removes every slot queued in the scratch buffers from the container.
+     *
+     * @param container container to clear
+     * @param scratch buffers holding queued slots
+     */
+    private static void removeCollectedSlots(@NonNullDecl ItemContainer container, @NonNullDecl TrashScratch scratch) {
+        removeSlots(container, scratch.slots, scratch.slotQuantities, scratch.slotCount);
+    }
+
+    /**
+     * Clears a batch of slots from a container as one guarded removal.
+     *
+     * <p>The container API only exposes per-slot removal, so each slot still produces its own transaction; the guard makes the
+     * re-entrant events those transactions fire return immediately instead of being resolved and walked again.
+     *
+     * @param container container to clear
+     * @param slots slot indices to clear
+     * @param quantities quantity to remove per slot, zero for the whole slot
+     * @param count number of slots to read from {@code slots}
+     */
+    static void removeSlots(@NonNullDecl ItemContainer container, @NonNullDecl short[] slots, @NonNullDecl int[] quantities, int count) {
+        if (count <= 0) {
+            return;
+        }
+        RemovalGuard guard = RemovalGuard.enter();
+        try {
+            for (int i = 0; i < count; i++) {
+                if (quantities[i] > 0) {
+                    container.removeItemStackFromSlot(slots[i], quantities[i]);
+                } else {
+                    container.removeItemStackFromSlot(slots[i]);
+                }
+            }
+        } finally {
+            guard.exit();
+        }
+        AutoTrashMetrics.REMOVAL_BATCHES.increment();
+        AutoTrashMetrics.SLOTS_REMOVED.add(count);
     }
 
     /**
      * Removes trash items from any slots modified by the transaction.
      *
-     * @param player the player owning the inventory
      * @param container the container being modified
      * @param transaction the inventory transaction driving the change
-     * @param profile active auto-trash profile
+     * @param matcher effective matcher
+     * @param settings player settings holding the keep totals and notification batch, or null for players without settings
+     * @param notify whether to queue notifications
      */
-    private static void removeTrashItems(@NonNullDecl Player player, @NonNullDecl ItemContainer container, @NonNullDecl Transaction transaction,
-            @NonNullDecl AutoTrashPlayerSettings.AutoTrashProfile profile, @NonNullDecl AutoTrashPlayerSettings settings) {
+    private static void removeTrashItems(@NonNullDecl ItemContainer container, @NonNullDecl Transaction transaction, @NonNullDecl ItemMatcher matcher,
+            @NullableDecl AutoTrashPlayerSettings settings, boolean notify) {
         // Collect only the slots touched by this transaction to avoid full scans.
-        List<Short> slotsToRemove = new ArrayList<>();
-        Map<String, Integer> totalsByItem = new LinkedHashMap<>();
-        Map<String, ItemStack> samplesByItem = new LinkedHashMap<>();
-        int removedCount = collectModifiedTrashSlots(container, transaction, slotsToRemove, totalsByItem, samplesByItem, profile);
-        if (removedCount > 0) {
-            for (short slot : slotsToRemove) {
-                container.removeItemStackFromSlot(slot);
-            }
-            if (settings.isNotify()) {
-                sendTrashNotifications(player, totalsByItem, samplesByItem);
+        ItemCounts counts = settings != null && matcher.hasKeepRules() ? settings.getItemCounts() : null;
+        TrashScratch scratch = TrashScratch.acquire(matcher, counts);
+        try {
+            int removedCount = walkTransaction(container, transaction, scratch);
+            if (removedCount > 0) {
+                removeCollectedSlots(container, scratch);
+                if (notify && settings != null) {
+                    queueTrashNotifications(settings, scratch);
+                }
             }
+        } finally {
+            scratch.release();
         }
     }
 
     /**
-     * Collects slot indices that now contain trash items after applying a transaction.
+     * Walks a transaction and reports every slot that received items to the sink.
      *
      * @param container the container being modified
      * @param transaction the transaction to evaluate
-     * @param slotsToRemove output list of slot indices to remove
-     * @param totalsByItem output totals for each item id
-     * @param samplesByItem output samples for each item id
-     * @param profile active auto-trash profile
-     * @return total quantity removed by the transaction
+     * @param sink receiver for slot additions
+     * @return total quantity reported by the sink
      */
-    private static int collectModifiedTrashSlots(@NonNullDecl ItemContainer container, @NonNullDecl Transaction transaction, @NonNullDecl List<Short> slotsToRemove,
-            @NonNullDecl Map<String, Integer> totalsByItem, @NonNullDecl Map<String, ItemStack> samplesByItem, @NonNullDecl AutoTrashPlayerSettings.AutoTrashProfile profile) {
+    private static int walkTransaction(@NonNullDecl ItemContainer container, @NonNullDecl Transaction transaction, @NonNullDecl SlotChangeSink sink) {
         if (!transaction.succeeded()) {
             return 0;
         }
@@ -125,28 +310,24 @@ public final class AutoTrashSystem {
         // Normalize the common transaction types into per-slot checks.
         switch (transaction) {
             case ItemStackSlotTransaction slotTransaction -> {
-                return collectFromSlotTransaction(container, slotTransaction, slotsToRemove, totalsByItem, samplesByItem, profile);
+                return walkSlotTransaction(container, slotTransaction, sink);
             }
             case SlotTransaction slotTransaction -> {
-                return collectFromSlotTransaction(container, slotTransaction, slotsToRemove, totalsByItem, samplesByItem, profile);
+                return walkSlotTransaction(container, slotTransaction, sink);
             }
             case ItemStackTransaction itemStackTransaction -> {
-                return collectFromListTransaction(container, itemStackTransaction.getSlotTransactions(), slotsToRemove, totalsByItem, samplesByItem, profile);
+                return walkListTransaction(container, itemStackTransaction.getSlotTransactions(), sink);
             }
             case MoveTransaction<?> moveTransaction -> {
-                int removed = collectFromSlotTransaction(container, moveTransaction.getRemoveTransaction(), slotsToRemove, totalsByItem, samplesByItem, profile);
+                int removed = walkSlotTransaction(container, moveTransaction.getRemoveTransaction(), sink);
                 Transaction addTransaction = moveTransaction.getAddTransaction();
                 if (addTransaction != null) {
-                    removed += collectModifiedTrashSlots(container, addTransaction, slotsToRemove, totalsByItem, samplesByItem, profile);
+                    removed += walkTransaction(container, addTransaction, sink);
                 }
                 return removed;
             }
             case ListTransaction<?> listTransaction -> {
-                int removed = 0;
-                for (Transaction subTransaction : listTransaction.getList()) {
-                    removed += collectModifiedTrashSlots(container, subTransaction, slotsToRemove, totalsByItem, samplesByItem, profile);
-                }
-                return removed;
+                return walkListTransaction(container, listTransaction.getList(), sink);
             }
             default -> {
             }
@@ -156,67 +337,55 @@ public final class AutoTrashSystem {
     }
 
     /**
-     * Checks a generic slot transaction for newly added trash items.
+     * Walks a generic slot transaction.
      *
      * @param container the container being modified
      * @param transaction the slot transaction to inspect
-     * @param slotsToRemove output list of slot indices to remove
-     * @param totalsByItem output totals for each item id
-     * @param samplesByItem output samples for each item id
-     * @param profile active auto-trash profile
-     * @return quantity removed when the transaction matches a trash item
+     * @param sink receiver for slot additions
+     * @return quantity reported by the sink
      */
-    private static int collectFromSlotTransaction(@NonNullDecl ItemContainer container, @NonNullDecl SlotTransaction transaction, @NonNullDecl List<Short> slotsToRemove,
-            @NonNullDecl Map<String, Integer> totalsByItem, @NonNullDecl Map<String, ItemStack> samplesByItem, @NonNullDecl AutoTrashPlayerSettings.AutoTrashProfile profile) {
+    private static int walkSlotTransaction(@NonNullDecl ItemContainer container, @NonNullDecl SlotTransaction transaction, @NonNullDecl SlotChangeSink sink) {
         if (!transaction.succeeded()) {
             return 0;
         }
 
-        return collectFromSlotTransaction(container, transaction.getAction().isRemove(), transaction.getSlot(), transaction.getSlotAfter(),
-                transaction.getSlotBefore(), slotsToRemove, totalsByItem, samplesByItem, profile);
+        return walkSlotChange(container, transaction.getAction().isRemove(), transaction.getSlot(), transaction.getSlotAfter(),
+                transaction.getSlotBefore(), sink);
 
     }
 
     /**
-     * Checks an item-stack slot transaction for newly added trash items.
+     * Walks an item-stack slot transaction.
      *
      * @param container the container being modified
      * @param transaction the item-stack slot transaction to inspect
-     * @param slotsToRemove output list of slot indices to remove
-     * @param totalsByItem output totals for each item id
-     * @param samplesByItem output samples for each item id
-     * @param profile active auto-trash profile
-     * @return quantity removed when the transaction matches a trash item
+     * @param sink receiver for slot additions
+     * @return quantity reported by the sink
      */
-    private static int collectFromSlotTransaction(@NonNullDecl ItemContainer container, @NonNullDecl ItemStackSlotTransaction transaction,
-            @NonNullDecl List<Short> slotsToRemove, @NonNullDecl Map<String, Integer> totalsByItem, @NonNullDecl Map<String, ItemStack> samplesByItem,
-            @NonNullDecl AutoTrashPlayerSettings.AutoTrashProfile profile) {
+    private static int walkSlotTransaction(@NonNullDecl ItemContainer container, @NonNullDecl ItemStackSlotTransaction transaction,
+            @NonNullDecl SlotChangeSink sink) {
         if (!transaction.succeeded()) {
             return 0;
         }
 
-        return collectFromSlotTransaction(container, transaction.getAction().isRemove(), transaction.getSlot(), transaction.getSlotAfter(),
-                transaction.getSlotBefore(), slotsToRemove, totalsByItem, samplesByItem, profile);
+        return walkSlotChange(container, transaction.getAction().isRemove(), transaction.getSlot(), transaction.getSlotAfter(),
+                transaction.getSlotBefore(), sink);
     }
 
     /**
-     * Handles shared slot transaction checks for trashable items.
+     * Filters a single slot change and forwards additions, and removals when the sink asks for them, to the sink.
      *
      * @param container the container being modified
      * @param isRemoveAction whether the transaction removes items
      * @param slot the slot index affected
      * @param slotAfter stack after the transaction
      * @param slotBefore stack before the transaction
-     * @param slotsToRemove output list of slot indices to remove
-     * @param totalsByItem output totals for each item id
-     * @param samplesByItem output samples for each item id
-     * @param profile active auto-trash profile
-     * @return quantity removed when the transaction matches a trash item
+     * @param sink receiver for slot additions
+     * @return quantity reported by the sink
      */
-    private static int collectFromSlotTransaction(@NonNullDecl ItemContainer container, boolean isRemoveAction, short slot, ItemStack slotAfter,
-            ItemStack slotBefore, @NonNullDecl List<Short> slotsToRemove, @NonNullDecl Map<String, Integer> totalsByItem, @NonNullDecl Map<String, ItemStack> samplesByItem,
-            @NonNullDecl AutoTrashPlayerSettings.AutoTrashProfile profile) {
-        if (isRemoveAction) {
+    private static int walkSlotChange(@NonNullDecl ItemContainer container, boolean isRemoveAction, short slot, ItemStack slotAfter,
+            ItemStack slotBefore, @NonNullDecl SlotChangeSink sink) {
+        if (isRemoveAction && !sink.acceptsRemovals()) {
             return 0;
         }
 
@@ -224,101 +393,110 @@ public final class AutoTrashSystem {
             return 0;
         }
 
-        if (!matchesRule(slotAfter, profile)) {
-            return 0;
-        }
-
-        slotsToRemove.add(slot);
-        return registerRemovedItem(slotBefore, slotAfter, totalsByItem, samplesByItem);
+        return sink.accept(slot, slotBefore, slotAfter);
     }
 
     /**
-     * Walks a nested list transaction and collects trash-item slots.
+     * Walks a nested list transaction.
      *
      * @param <T> the transaction type
      * @param container the container being modified
      * @param transactions the list of transactions to inspect
-     * @param slotsToRemove output list of slot indices to remove
-     * @param totalsByItem output totals for each item id
-     * @param samplesByItem output samples for each item id
-     * @param profile active auto-trash profile
-     * @return total quantity removed across nested transactions
+     * @param sink receiver for slot additions
+     * @return total quantity reported across nested transactions
      */
-    private static <T extends Transaction> int collectFromListTransaction(@NonNullDecl ItemContainer container, @NonNullDecl List<T> transactions,
-            @NonNullDecl List<Short> slotsToRemove,
-            @NonNullDecl Map<String, Integer> totalsByItem, @NonNullDecl Map<String, ItemStack> samplesByItem, @NonNullDecl AutoTrashPlayerSettings.AutoTrashProfile profile) {
+    private static <T extends Transaction> int walkListTransaction(@NonNullDecl ItemContainer container, @NonNullDecl List<T> transactions,
+            @NonNullDecl SlotChangeSink sink) {
         int removed = 0;
-        for (Transaction transaction : transactions) {
-            removed += collectModifiedTrashSlots(container, transaction, slotsToRemove, totalsByItem, samplesByItem, profile);
+        // Indexed loop avoids an iterator allocation per nested list.
+        for (int i = 0, size = transactions.size(); i < size; i++) {
+            removed += walkTransaction(container, transactions.get(i), sink);
         }
         return removed;
     }
 
     /**
-     * Checks whether the given stack matches configured auto-trash rules.
+     * Queues per-item totals on the player's notification batch; the tick flushes them once the window elapses.
      *
-     * @param itemStack the stack to check
-     * @param profile active auto-trash profile
-     * @return true if the stack should be auto-trashed
+     * @param settings player settings holding the batch
+     * @param scratch collected totals and sample stacks
      */
-    private static boolean matchesRule(ItemStack itemStack, @NonNullDecl AutoTrashPlayerSettings.AutoTrashProfile profile) {
-        if (itemStack == null || ItemStack.isEmpty(itemStack)) {
-            return false;
-        }
-
-        String itemId = itemStack.getItemId();
-        for (String exactItem : profile.getExactItems()) {
-            if (itemId.equals(exactItem)) {
-                return true;
+    private static void queueTrashNotifications(@NonNullDecl AutoTrashPlayerSettings settings, @NonNullDecl TrashScratch scratch) {
+        TrashNotificationBatch batch = settings.getNotificationBatch();
+        long nowMillis = System.currentTimeMillis();
+        for (int i = 0; i < scratch.itemCount; i++) {
+            ItemStack sample = scratch.itemSamples[i];
+            if (sample == null) {
+                continue;
             }
-        }
 
-        return false;
+            batch.add(scratch.itemIndices[i], scratch.itemTotals[i], sample, nowMillis);
+        }
     }
 
     /**
-     * Registers the removed item quantity and sample for notifications.
+     * Queues a single trashed stack on the player's notification batch.
      *
-     * @param slotBefore stack before the transaction
-     * @param slotAfter stack after the transaction
-     * @param totalsByItem output totals for each item id
-     * @param samplesByItem output samples for each item id
-     * @return quantity removed in this transaction
+     * @param settings player settings holding the batch
+     * @param itemStack trashed stack
      */
-    private static int registerRemovedItem(ItemStack slotBefore, @NonNullDecl ItemStack slotAfter, @NonNullDecl Map<String, Integer> totalsByItem,
-            @NonNullDecl Map<String, ItemStack> samplesByItem) {
-        String itemId = slotAfter.getItemId();
-        int beforeQuantity = ItemStack.isEmpty(slotBefore) ? 0 : slotBefore.getQuantity();
-        int delta = slotAfter.getQuantity() - beforeQuantity;
-        if (delta <= 0) {
-            return 0;
-        }
-
-        totalsByItem.put(itemId, totalsByItem.getOrDefault(itemId, 0) + delta);
-        samplesByItem.putIfAbsent(itemId, slotAfter);
-        return delta;
+    public static void queueTrashNotification(@NonNullDecl AutoTrashPlayerSettings settings, @NonNullDecl ItemStack itemStack) {
+        queueTrashNotification(settings, itemStack, itemStack.getQuantity());
     }
 
     /**
-     * Sends per-item notifications when trash items were removed.
+     * Queues a trashed quantity of an item on the player's notification batch.
      *
-     * @param player the player to notify
-     * @param totalsByItem totals of removed items
-     * @param samplesByItem sample stacks for item display
+     * @param settings player settings holding the batch
+     * @param itemStack sample stack of the trashed item
+     * @param quantity total quantity trashed
      */
-    private static void sendTrashNotifications(@NonNullDecl Player player, @NonNullDecl Map<String, Integer> totalsByItem, @NonNullDecl Map<String, ItemStack> samplesByItem) {
-        if (totalsByItem.isEmpty()) {
+    public static void queueTrashNotification(@NonNullDecl AutoTrashPlayerSettings settings, @NonNullDecl ItemStack itemStack, int quantity) {
+        if (ItemStack.isEmpty(itemStack) || quantity <= 0) {
             return;
         }
+        settings.getNotificationBatch().add(ItemIndex.indexOf(itemStack.getItemId()), quantity, itemStack, System.currentTimeMillis());
+    }
 
-        for (Map.Entry<String, Integer> entry : totalsByItem.entrySet()) {
-            ItemStack sample = samplesByItem.get(entry.getKey());
-            if (sample == null) {
-                continue;
+    /**
+     * Removes everything the player's active profile matches from their inventory in one scan.
+     *
+     * @param player player to scan
+     * @param settings player settings
+     * @param dryRun true to count without removing anything
+     * @return per-item summary of the scan
+     */
+    @NonNullDecl
+    public static InventoryScan.Result scanInventory(@NonNullDecl Player player, @NonNullDecl AutoTrashPlayerSettings settings, boolean dryRun) {
+        AutoTrashSnapshot snapshot = settings.getSnapshot();
+        // A scan is an explicit request, so the profile applies even while auto-trash is disabled.
+        ItemMatcher matcher = snapshot.isEnabled() ? snapshot.getMatcher() : ItemMatcher.merge(snapshot.getProfileMatcher(), RuntimeConfig.current().getGlobalRules());
+        InventoryScan.Result result = InventoryScan.scan(player.getInventory().getCombinedEverything(), matcher, settings.getItemCounts(), dryRun);
+        if (!dryRun && snapshot.isNotify()) {
+            for (InventoryScan.Entry entry : result.getEntries()) {
+                queueTrashNotification(settings, entry.getSample(), entry.getQuantity());
             }
+        }
+        return result;
+    }
 
-            sendTrashNotification(player, sample);
+    /**
+     * Flushes the player's notification batch if its window has elapsed, or drops it when the player has turned notifications off
+     * since it was queued.
+     *
+     * @param player player to notify
+     * @param settings player settings holding the batch
+     */
+    public static void flushTrashNotifications(@NonNullDecl Player player, @NonNullDecl AutoTrashPlayerSettings settings) {
+        if (!settings.hasQueuedNotifications()) {
+            return;
+        }
+        if (!settings.getSnapshot().isNotify()) {
+            settings.getNotificationBatch().clear();
+            return;
         }
+        RuntimeConfig config = RuntimeConfig.current();
+        settings.getNotificationBatch().flush(player, System.currentTimeMillis(), config.getNotificationWindowMillis(), config.getNotificationMaxPerSecond());
     }
 
     /**
@@ -328,6 +506,17 @@ public final class AutoTrashSystem {
      * @param itemStack item stack to display
      */
     public static void sendTrashNotification(@NonNullDecl Player player, @NonNullDecl ItemStack itemStack) {
+        sendTrashNotification(player, itemStack, 0);
+    }
+
+    /**
+     * Sends a single trash notification for an item stack with the total quantity trashed.
+     *
+     * @param player player to notify
+     * @param itemStack item stack to display
+     * @param quantity total quantity trashed, shown when greater than one
+     */
+    public static void sendTrashNotification(@NonNullDecl Player player, @NonNullDecl ItemStack itemStack, int quantity) {
         World world = player.getWorld();
         if (world == null || !world.getGameplayConfig().getShowItemPickupNotifications()) {
             return;
@@ -339,7 +528,8 @@ public final class AutoTrashSystem {
         }
 
         Message itemName = Message.translation(itemStack.getItem().getTranslationKey()).color("#b93333");
-        NotificationUtil.sendNotification(playerRef.getPacketHandler(), itemName, null, itemStack.toPacket(), NotificationStyle.Default);
+        Message quantityText = quantity > 1 ? Message.raw("x" + quantity) : null;
+        NotificationUtil.sendNotification(playerRef.getPacketHandler(), itemName, quantityText, itemStack.toPacket(), NotificationStyle.Default);
     }
 
     /**
@@ -357,16 +547,33 @@ public final class AutoTrashSystem {
     }
 
     /**
-     * Retrieves the settings for the player if the component type is available.
+     * Forces the player's keep-rule totals to be recounted after their inventory was changed outside the listener.
+     *
+     * @param player player whose inventory changed
+     */
+    static void invalidateItemCounts(@NonNullDecl Player player) {
+        AutoTrashPlayerSettings settings = getSettings(player);
+        if (settings != null) {
+            settings.getItemCounts().invalidate();
+        }
+    }
+
+    /**
+     * Forgets the cached settings of an entity after its component was added, replaced or removed.
+     *
+     * @param ref entity reference
+     */
+    static void invalidateSettings(@NonNullDecl Ref<EntityStore> ref) {
+        SETTINGS.invalidate(ref);
+    }
+
+    /**
+     * Retrieves the settings for the player without creating the component.
      *
      * @param player the player to query
      * @return settings or null when unavailable
      */
     private static AutoTrashPlayerSettings getSettings(@NonNullDecl Player player) {
-        if (settingsComponentType == null) {
-            return null;
-        }
-
-        return AutoTrashPlayerSettings.get(player, settingsComponentType);
+        return SETTINGS.resolve(player);
     }
 }
@@ -0,0 +1,73 @@
+package me.clutchy.hytale.autotrash.system;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.tick.EntityTickingSystem;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import me.clutchy.hytale.autotrash.settings.AutoTrashPlayerSettings;
+
+/**
+ * Tick engine that processes each dirty player once per tick.
+ *
+ * <p>When the tick engine is selected, the inventory listener only queues changes on the player's settings; this system drains the
+ * queue with one removal pass and one notification batch per player. With either engine it also flushes coalesced notifications.
+ */
+public final class AutoTrashTickSystem extends EntityTickingSystem<EntityStore> {
+
+    /** Component type used for player settings. */
+    private final ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType;
+    /** Entities that carry both a player and auto-trash settings. */
+    private final Query<EntityStore> query;
+
+    /**
+     * Creates the ticking system.
+     *
+     * @param settingsComponentType component type for player settings
+     */
+    public AutoTrashTickSystem(@NonNullDecl ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType) {
+        this.settingsComponentType = settingsComponentType;
+        this.query = Query.and(settingsComponentType, Player.getComponentType());
+    }
+
+    /**
+     * Returns the query selecting players with auto-trash settings.
+     *
+     * @return entity query
+     */
+    @NonNullDecl
+    @Override
+    public Query<EntityStore> getQuery() {
+        return query;
+    }
+
+    /**
+     * Processes queued inventory changes and flushes coalesced notifications for a single player.
+     *
+     * @param dt tick delta time
+     * @param index entity index within the chunk
+     * @param archetypeChunk chunk holding the entity
+     * @param store entity store
+     * @param commandBuffer command buffer for deferred changes
+     */
+    @Override
+    public void tick(float dt, int index, @NonNullDecl ArchetypeChunk<EntityStore> archetypeChunk, @NonNullDecl Store<EntityStore> store,
+            @NonNullDecl CommandBuffer<EntityStore> commandBuffer) {
+        AutoTrashPlayerSettings settings = archetypeChunk.getComponent(index, settingsComponentType);
+        if (settings == null || (!settings.hasPendingChanges() && !settings.hasQueuedNotifications())) {
+            return;
+        }
+        Player player = archetypeChunk.getComponent(index, Player.getComponentType());
+        if (player == null) {
+            return;
+        }
+        AutoTrashSystem.processPendingChanges(player, settings);
+        AutoTrashSystem.flushTrashNotifications(player, settings);
+    }
+}
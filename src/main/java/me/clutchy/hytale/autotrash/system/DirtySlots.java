@@ -0,0 +1,125 @@
+package me.clutchy.hytale.autotrash.system;
+
+import java.util.Arrays;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+/**
+ * Slots of one container touched since the last tick, with the quantity added to each.
+ *
+ * <p>Shift-click stacking, sorting and pickup streams report the same slots many times per tick; merging them into a bitmap lets
+ * the tick engine evaluate every slot once against its final contents while the summed deltas keep notification totals correct.
+ */
+final class DirtySlots implements SlotChangeSink {
+
+    private ItemContainer container;
+    private long[] words = new long[1];
+    private int[] addedQuantities = new int[64];
+    private boolean dirty;
+
+    /**
+     * Binds the bitmap to a container, growing storage to its capacity.
+     *
+     * @param container container to track
+     */
+    void reset(@NonNullDecl ItemContainer container) {
+        this.container = container;
+        int capacity = Math.max(1, container.getCapacity());
+        int wordCount = (capacity + 63) >>> 6;
+        if (words.length < wordCount) {
+            words = new long[wordCount];
+        }
+        if (addedQuantities.length < capacity) {
+            addedQuantities = new int[capacity];
+        }
+    }
+
+    /**
+     * Returns the tracked container.
+     *
+     * @return tracked container
+     */
+    ItemContainer getContainer() {
+        return container;
+    }
+
+    /**
+     * Returns whether any slot has been marked since the last clear.
+     *
+     * @return true when at least one slot is dirty
+     */
+    boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks a slot dirty and accumulates the quantity added to it.
+     *
+     * @param slot slot index
+     * @param slotBefore stack before the transaction
+     * @param slotAfter stack after the transaction
+     * @return always 0, removal is decided when the tick drains the bitmap
+     */
+    @Override
+    public int accept(short slot, ItemStack slotBefore, ItemStack slotAfter) {
+        if (slot >= addedQuantities.length || (slot >>> 6) >= words.length) {
+            return 0;
+        }
+        words[slot >>> 6] |= 1L << slot;
+        dirty = true;
+        int before = ItemStack.isEmpty(slotBefore) ? 0 : slotBefore.getQuantity();
+        int after = ItemStack.isEmpty(slotAfter) ? 0 : slotAfter.getQuantity();
+        if (after > before) {
+            addedQuantities[slot] += after - before;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the next dirty slot at or after the given index.
+     *
+     * @param from first slot to consider
+     * @return next dirty slot or -1 when none remain
+     */
+    int nextDirtySlot(int from) {
+        int wordIndex = from >>> 6;
+        if (wordIndex >= words.length) {
+            return -1;
+        }
+        long word = words[wordIndex] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++wordIndex == words.length) {
+                return -1;
+            }
+            word = words[wordIndex];
+        }
+    }
+
+    /**
+     * Returns the total quantity added to a slot since the last clear.
+     *
+     * @param slot slot index
+     * @return added quantity
+     */
+    int getAddedQuantity(int slot) {
+        return addedQuantities[slot];
+    }
+
+    /** Clears every dirty slot and releases the container reference. */
+    void clear() {
+        if (dirty) {
+            for (int slot = nextDirtySlot(0); slot >= 0; slot = nextDirtySlot(slot + 1)) {
+                addedQuantities[slot] = 0;
+            }
+            Arrays.fill(words, 0L);
+            dirty = false;
+        }
+        container = null;
+    }
+}
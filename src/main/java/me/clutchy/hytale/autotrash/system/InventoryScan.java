@@ -0,0 +1,198 @@
+package me.clutchy.hytale.autotrash.system;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import me.clutchy.hytale.autotrash.rule.ItemIndex;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
+
+/**
+ * Whole-inventory scan against a compiled matcher.
+ *
+ * <p>Each container is walked once into the per-thread scratch buffers, matched slots are cleared as one guarded batch, and removed
+ * quantities are aggregated per item for a single summary. Keep rules trim from the last slots first, so the stacks that are kept are
+ * the ones nearest the hotbar.
+ */
+public final class InventoryScan {
+
+    private InventoryScan() {
+    }
+
+    /**
+     * Scans a container and removes, or only counts, everything the matcher selects.
+     *
+     * @param container container to scan, usually the combined player inventory
+     * @param matcher compiled matcher to apply
+     * @param counts player's keep-rule totals, recounted by the scan; null, or ignored on a dry run, to use a throwaway index
+     * @param dryRun true to count without mutating the container
+     * @return per-item summary of what was, or would be, removed
+     */
+    @NonNullDecl
+    public static Result scan(@NonNullDecl ItemContainer container, @NonNullDecl ItemMatcher matcher, ItemCounts counts, boolean dryRun) {
+        if (matcher.isEmpty()) {
+            return Result.EMPTY;
+        }
+        // A dry run charges trims to a throwaway index so the player's totals stay in step with the inventory.
+        ItemCounts keepCounts = null;
+        if (matcher.hasKeepRules()) {
+            keepCounts = dryRun || counts == null ? new ItemCounts() : counts;
+            keepCounts.rebuild(container, matcher);
+        }
+
+        TrashScratch scratch = TrashScratch.acquire(matcher, keepCounts);
+        try {
+            for (int slot = container.getCapacity() - 1; slot >= 0; slot--) {
+                ItemStack stack = container.getItemStack((short) slot);
+                if (stack == null || ItemStack.isEmpty(stack)) {
+                    continue;
+                }
+                int itemIndex = matcher.matchingIndex(stack.getItemId());
+                if (itemIndex == ItemIndex.UNKNOWN) {
+                    continue;
+                }
+                int keepLimit = matcher.keepLimit(itemIndex);
+                if (keepLimit != ItemMatcher.NO_LIMIT) {
+                    int trimmed = scratch.trimToLimit((short) slot, itemIndex, keepLimit, stack.getQuantity());
+                    if (trimmed > 0) {
+                        scratch.addTotal(itemIndex, trimmed, stack);
+                    }
+                    continue;
+                }
+                scratch.addSlot((short) slot);
+                scratch.addTotal(itemIndex, stack.getQuantity(), stack);
+            }
+            if (scratch.slotCount == 0) {
+                return Result.EMPTY;
+            }
+            if (!dryRun) {
+                AutoTrashSystem.removeSlots(container, scratch.slots, scratch.slotQuantities, scratch.slotCount);
+            }
+            AutoTrashMetrics.SCANS.increment();
+            return Result.of(scratch);
+        } finally {
+            scratch.release();
+        }
+    }
+
+    /**
+     * Aggregated outcome of a scan.
+     */
+    public static final class Result {
+
+        /** Result of a scan that matched nothing. */
+        public static final Result EMPTY = new Result(0, List.of());
+
+        private final int slotCount;
+        private final List<Entry> entries;
+
+        private Result(int slotCount, @NonNullDecl List<Entry> entries) {
+            this.slotCount = slotCount;
+            this.entries = entries;
+        }
+
+        @NonNullDecl
+        private static Result of(@NonNullDecl TrashScratch scratch) {
+            List<Entry> entries = new ArrayList<>(scratch.itemCount);
+            for (int i = 0; i < scratch.itemCount; i++) {
+                entries.add(new Entry(scratch.itemSamples[i], scratch.itemTotals[i]));
+            }
+            return new Result(scratch.slotCount, List.copyOf(entries));
+        }
+
+        /**
+         * Returns whether nothing matched.
+         *
+         * @return true when no slot matched
+         */
+        public boolean isEmpty() {
+            return slotCount == 0;
+        }
+
+        /**
+         * Returns the number of slots cleared or trimmed.
+         *
+         * @return slot count
+         */
+        public int getSlotCount() {
+            return slotCount;
+        }
+
+        /**
+         * Returns the total quantity across all items.
+         *
+         * @return item quantity
+         */
+        public int getTotalQuantity() {
+            int total = 0;
+            for (Entry entry : entries) {
+                total += entry.getQuantity();
+            }
+            return total;
+        }
+
+        /**
+         * Returns the per-item totals in first-seen order.
+         *
+         * @return item entries
+         */
+        @NonNullDecl
+        public List<Entry> getEntries() {
+            return entries;
+        }
+
+        /**
+         * Formats the per-item totals as {@code id xN} pairs.
+         *
+         * @return comma-separated summary
+         */
+        @NonNullDecl
+        public String describeEntries() {
+            StringBuilder builder = new StringBuilder();
+            for (Entry entry : entries) {
+                if (!builder.isEmpty()) {
+                    builder.append(", ");
+                }
+                builder.append(entry.getSample().getItemId()).append(" x").append(entry.getQuantity());
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Quantity of one item matched by a scan.
+     */
+    public static final class Entry {
+
+        private final ItemStack sample;
+        private final int quantity;
+
+        private Entry(@NonNullDecl ItemStack sample, int quantity) {
+            this.sample = sample;
+            this.quantity = quantity;
+        }
+
+        /**
+         * Returns a sample stack of the item, for notifications.
+         *
+         * @return sample stack
+         */
+        @NonNullDecl
+        public ItemStack getSample() {
+            return sample;
+        }
+
+        /**
+         * Returns the matched quantity.
+         *
+         * @return quantity
+         */
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+}
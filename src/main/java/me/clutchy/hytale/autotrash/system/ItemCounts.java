@@ -0,0 +1,135 @@
+package me.clutchy.hytale.autotrash.system;
+
+import java.util.Arrays;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+import me.clutchy.hytale.autotrash.rule.ItemIndex;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
+
+/**
+ * Running per-player totals for items under a keep-N rule.
+ *
+ * <p>Totals are kept current from the same per-slot before/after stacks the transaction walker already reports, so deciding how much of
+ * a stack is excess is one array read instead of a recount of the whole inventory. The index is built against one compiled matcher and
+ * rebuilt only on first use after login, after the rules change, or when a delta drives a total negative.
+ */
+public final class ItemCounts implements SlotChangeSink {
+
+    /** Matcher whose keep rules the totals were built for. */
+    private ItemMatcher matcher;
+    private int[] counts = new int[0];
+    private boolean valid;
+
+    /** Creates an empty, invalid index. */
+    public ItemCounts() {
+    }
+
+    /**
+     * Returns whether the totals are valid for the given matcher.
+     *
+     * @param matcher current compiled matcher
+     * @return true when no rebuild is needed
+     */
+    boolean isCurrent(@NonNullDecl ItemMatcher matcher) {
+        return valid && this.matcher == matcher;
+    }
+
+    /**
+     * Recounts every tracked item in the inventory.
+     *
+     * @param inventory combined player inventory
+     * @param matcher compiled matcher defining the tracked items
+     */
+    void rebuild(@NonNullDecl ItemContainer inventory, @NonNullDecl ItemMatcher matcher) {
+        this.matcher = matcher;
+        Arrays.fill(counts, 0);
+        for (int slot = 0, capacity = inventory.getCapacity(); slot < capacity; slot++) {
+            ItemStack stack = inventory.getItemStack((short) slot);
+            if (stack == null || ItemStack.isEmpty(stack)) {
+                continue;
+            }
+            int itemIndex = ItemIndex.find(stack.getItemId());
+            if (matcher.keepLimit(itemIndex) >= 0) {
+                add(itemIndex, stack.getQuantity());
+            }
+        }
+        valid = true;
+        AutoTrashMetrics.COUNT_INDEX_REBUILDS.increment();
+    }
+
+    /** Marks the totals stale so the next use recounts the inventory. */
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Returns the running total of an item.
+     *
+     * @param itemIndex item index
+     * @return quantity held across the inventory
+     */
+    int get(int itemIndex) {
+        return itemIndex < counts.length ? counts[itemIndex] : 0;
+    }
+
+    /**
+     * Subtracts a quantity AutoTrash removed itself, since its own removal events are skipped.
+     *
+     * @param itemIndex item index
+     * @param quantity quantity removed
+     */
+    void subtract(int itemIndex, int quantity) {
+        add(itemIndex, -quantity);
+    }
+
+    /** Applies removals too, since a keep total must drop when the player drops or moves items out. */
+    @Override
+    public boolean acceptsRemovals() {
+        return true;
+    }
+
+    /**
+     * Applies the before/after delta of one slot to the tracked totals.
+     *
+     * @param slot slot index
+     * @param slotBefore stack before the transaction
+     * @param slotAfter stack after the transaction
+     * @return always zero; nothing is queued for removal
+     */
+    @Override
+    public int accept(short slot, ItemStack slotBefore, ItemStack slotAfter) {
+        if (slotBefore != null && !ItemStack.isEmpty(slotBefore)) {
+            int itemIndex = ItemIndex.find(slotBefore.getItemId());
+            if (matcher.keepLimit(itemIndex) >= 0) {
+                add(itemIndex, -slotBefore.getQuantity());
+            }
+        }
+        if (slotAfter != null && !ItemStack.isEmpty(slotAfter)) {
+            int itemIndex = ItemIndex.find(slotAfter.getItemId());
+            if (matcher.keepLimit(itemIndex) >= 0) {
+                add(itemIndex, slotAfter.getQuantity());
+            }
+        }
+        return 0;
+    }
+
+    private void add(int itemIndex, int quantity) {
+        if (itemIndex >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(itemIndex + 1, Math.max(64, counts.length * 2)));
+        }
+        int total = counts[itemIndex] + quantity;
+        if (total < 0) {
+            // A missed event left the index behind the inventory; recount on next use.
+            total = 0;
+            if (valid) {
+                valid = false;
+                AutoTrashMetrics.COUNT_INDEX_DESYNCS.increment();
+            }
+        }
+        counts[itemIndex] = total;
+    }
+}
@@ -0,0 +1,86 @@
+package me.clutchy.hytale.autotrash.system;
+
+import java.util.ArrayList;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.server.core.inventory.container.ItemContainer;
+
+/**
+ * Inventory changes queued for a player by the tick engine, merged into one dirty-slot bitmap per container.
+ *
+ * <p>Filled by the inventory listener and drained once per tick by {@link AutoTrashTickSystem}, both on the owning world thread.
+ * Bitmaps are pooled so a steady stream of changes does not allocate.
+ */
+public final class PendingInventoryChanges {
+
+    private final ArrayList<DirtySlots> containers = new ArrayList<>();
+    private int size;
+
+    /** Creates an empty queue. */
+    public PendingInventoryChanges() {
+    }
+
+    /**
+     * Returns the dirty-slot bitmap for a container, binding a pooled one on first use this tick.
+     *
+     * @param container container that changed
+     * @return dirty-slot bitmap for the container
+     */
+    @NonNullDecl
+    DirtySlots track(@NonNullDecl ItemContainer container) {
+        for (int i = 0; i < size; i++) {
+            DirtySlots slots = containers.get(i);
+            if (slots.getContainer() == container) {
+                return slots;
+            }
+        }
+        if (size == containers.size()) {
+            containers.add(new DirtySlots());
+        }
+        DirtySlots slots = containers.get(size++);
+        slots.reset(container);
+        return slots;
+    }
+
+    /**
+     * Returns whether any changes are queued.
+     *
+     * @return true when the player is dirty
+     */
+    public boolean isEmpty() {
+        for (int i = 0; i < size; i++) {
+            if (containers.get(i).isDirty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of tracked containers.
+     *
+     * @return tracked container count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns a tracked container bitmap.
+     *
+     * @param index tracking index
+     * @return dirty-slot bitmap
+     */
+    DirtySlots get(int index) {
+        return containers.get(index);
+    }
+
+    /** Drops all queued changes, keeping the pooled bitmaps. */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            containers.get(i).clear();
+        }
+        size = 0;
+    }
+}
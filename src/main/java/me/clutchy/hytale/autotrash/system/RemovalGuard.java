@@ -0,0 +1,42 @@
+package me.clutchy.hytale.autotrash.system;
+
+/**
+ * Per-thread marker set while AutoTrash removes items itself.
+ *
+ * <p>Every removal fires a re-entrant inventory change event on the same world thread. Those events only describe our own removals, so
+ * the listener drops them with a single thread-local read instead of resolving settings and walking the transaction again.
+ */
+final class RemovalGuard {
+
+    private static final ThreadLocal<RemovalGuard> LOCAL = ThreadLocal.withInitial(RemovalGuard::new);
+
+    private int depth;
+
+    private RemovalGuard() {
+    }
+
+    /**
+     * Returns whether the current thread is inside an AutoTrash removal.
+     *
+     * @return true while removing
+     */
+    static boolean isActive() {
+        return LOCAL.get().depth > 0;
+    }
+
+    /**
+     * Marks the current thread as removing.
+     *
+     * @return guard to pass to {@link #exit()}
+     */
+    static RemovalGuard enter() {
+        RemovalGuard guard = LOCAL.get();
+        guard.depth++;
+        return guard;
+    }
+
+    /** Clears one level of the removal marker. */
+    void exit() {
+        depth--;
+    }
+}
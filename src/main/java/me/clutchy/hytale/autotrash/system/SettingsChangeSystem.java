@@ -0,0 +1,99 @@
+package me.clutchy.hytale.autotrash.system;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.RefChangeSystem;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import me.clutchy.hytale.autotrash.settings.AutoTrashPlayerSettings;
+
+/**
+ * Drops the inventory listener's cached settings whenever a settings component is added, replaced or removed.
+ *
+ * <p>The listener caches each player's component for as long as the entity reference is valid, so without this a replaced or removed
+ * component would keep being used until the player leaves.
+ */
+public final class SettingsChangeSystem extends RefChangeSystem<EntityStore, AutoTrashPlayerSettings> {
+
+    /** Component type used for player settings. */
+    private final ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType;
+
+    /**
+     * Creates the settings change system.
+     *
+     * @param settingsComponentType component type for player settings
+     */
+    public SettingsChangeSystem(@NonNullDecl ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType) {
+        this.settingsComponentType = settingsComponentType;
+    }
+
+    /**
+     * Returns the watched component type.
+     *
+     * @return settings component type
+     */
+    @NonNullDecl
+    @Override
+    public ComponentType<EntityStore, AutoTrashPlayerSettings> componentType() {
+        return settingsComponentType;
+    }
+
+    /**
+     * Returns the query selecting entities with auto-trash settings.
+     *
+     * @return entity query
+     */
+    @NonNullDecl
+    @Override
+    public Query<EntityStore> getQuery() {
+        return settingsComponentType;
+    }
+
+    /**
+     * Forgets the cached lookup so the new component is read on the next event.
+     *
+     * @param ref entity reference
+     * @param component added settings
+     * @param store entity store
+     * @param commandBuffer command buffer for deferred changes
+     */
+    @Override
+    public void onComponentAdded(@NonNullDecl Ref<EntityStore> ref, @NonNullDecl AutoTrashPlayerSettings component, @NonNullDecl Store<EntityStore> store,
+            @NonNullDecl CommandBuffer<EntityStore> commandBuffer) {
+        AutoTrashSystem.invalidateSettings(ref);
+    }
+
+    /**
+     * Forgets the cached lookup so the replacement is read on the next event.
+     *
+     * @param ref entity reference
+     * @param oldComponent replaced settings
+     * @param newComponent new settings
+     * @param store entity store
+     * @param commandBuffer command buffer for deferred changes
+     */
+    @Override
+    public void onComponentSet(@NonNullDecl Ref<EntityStore> ref, AutoTrashPlayerSettings oldComponent, @NonNullDecl AutoTrashPlayerSettings newComponent,
+            @NonNullDecl Store<EntityStore> store, @NonNullDecl CommandBuffer<EntityStore> commandBuffer) {
+        AutoTrashSystem.invalidateSettings(ref);
+    }
+
+    /**
+     * Forgets the cached lookup so the removed component is no longer used.
+     *
+     * @param ref entity reference
+     * @param component removed settings
+     * @param store entity store
+     * @param commandBuffer command buffer for deferred changes
+     */
+    @Override
+    public void onComponentRemoved(@NonNullDecl Ref<EntityStore> ref, @NonNullDecl AutoTrashPlayerSettings component, @NonNullDecl Store<EntityStore> store,
+            @NonNullDecl CommandBuffer<EntityStore> commandBuffer) {
+        AutoTrashSystem.invalidateSettings(ref);
+    }
+}
@@ -0,0 +1,92 @@
+package me.clutchy.hytale.autotrash.system;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import me.clutchy.hytale.autotrash.settings.AutoTrashPlayerSettings;
+
+/**
+ * Resolves settings components for the inventory event hot path.
+ *
+ * <p>Unlike {@link AutoTrashPlayerSettings#get}, this never builds a holder or ensures the component: it reads straight from the
+ * player's {@code Store} and caches the instance for as long as the entity reference stays valid. Players without the component
+ * resolve to {@code null}, and the listener applies only the server's global rules to them.
+ * {@link SettingsChangeSystem} invalidates an entry whenever the component is added, replaced or removed on a live reference.
+ */
+final class SettingsResolver {
+
+    /** Cache size at which invalid references are swept on the next miss. */
+    private static final int MIN_PRUNE_THRESHOLD = 64;
+
+    private final ConcurrentHashMap<Ref<EntityStore>, AutoTrashPlayerSettings> cache = new ConcurrentHashMap<>();
+    private volatile ComponentType<EntityStore, AutoTrashPlayerSettings> componentType;
+    /** Written by whichever thread prunes; world and command threads both resolve. */
+    private volatile int pruneThreshold = MIN_PRUNE_THRESHOLD;
+
+    /**
+     * Updates the component type and drops any cached instances.
+     *
+     * @param componentType settings component type
+     */
+    void setComponentType(@NonNullDecl ComponentType<EntityStore, AutoTrashPlayerSettings> componentType) {
+        this.componentType = componentType;
+        cache.clear();
+    }
+
+    /**
+     * Returns the cached settings for the player, reading the store on a miss.
+     *
+     * @param player player to resolve
+     * @return settings or null when the player has none
+     */
+    @NullableDecl
+    AutoTrashPlayerSettings resolve(@NonNullDecl Player player) {
+        Ref<EntityStore> ref = player.getReference();
+        if (ref == null) {
+            return null;
+        }
+        AutoTrashPlayerSettings settings = cache.get(ref);
+        if (settings != null) {
+            if (ref.isValid()) {
+                return settings;
+            }
+            cache.remove(ref);
+            return null;
+        }
+        ComponentType<EntityStore, AutoTrashPlayerSettings> type = componentType;
+        if (type == null || !ref.isValid()) {
+            return null;
+        }
+        settings = ref.getStore().getComponent(ref, type);
+        if (settings == null) {
+            return null;
+        }
+        cache.put(ref, settings);
+        if (cache.size() >= pruneThreshold) {
+            prune();
+        }
+        return settings;
+    }
+
+    /**
+     * Forgets the cached settings for an entity reference.
+     *
+     * @param ref entity reference
+     */
+    void invalidate(@NonNullDecl Ref<EntityStore> ref) {
+        cache.remove(ref);
+    }
+
+    /** Drops references whose entities are gone and rescales the sweep threshold. */
+    private void prune() {
+        cache.keySet().removeIf(ref -> !ref.isValid());
+        pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, cache.size() * 2);
+    }
+}
@@ -0,0 +1,28 @@
+package me.clutchy.hytale.autotrash.system;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+
+/**
+ * Receives the per-slot additions found while walking an inventory transaction.
+ */
+interface SlotChangeSink {
+
+    /**
+     * Returns whether slots changed by remove actions should be reported too.
+     *
+     * @return true to receive removals
+     */
+    default boolean acceptsRemovals() {
+        return false;
+    }
+
+    /**
+     * Accepts a slot that items were added to.
+     *
+     * @param slot slot index, already bounds-checked against the container
+     * @param slotBefore stack before the transaction
+     * @param slotAfter stack after the transaction
+     * @return quantity queued for removal by this slot
+     */
+    int accept(short slot, ItemStack slotBefore, ItemStack slotAfter);
+}
@@ -0,0 +1,115 @@
+package me.clutchy.hytale.autotrash.system;
+
+import java.util.Arrays;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.server.core.entity.entities.Player;
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+
+/**
+ * Per-player aggregator that coalesces trash notifications.
+ *
+ * <p>Everything trashed within the configured window is merged into one notification per item carrying the summed quantity, flushed
+ * from the world tick and capped in packets per second. Items that exceed the cap stay queued for the next flush. Only touched on the
+ * owning world thread.
+ */
+public final class TrashNotificationBatch {
+
+    private static final long RATE_WINDOW_MILLIS = 1_000L;
+
+    private int[] itemIndices = new int[4];
+    private int[] totals = new int[4];
+    private ItemStack[] samples = new ItemStack[4];
+    private int count;
+    private long windowStartMillis;
+    private long rateWindowStartMillis;
+    private int packetsInRateWindow;
+
+    /** Creates an empty batch. */
+    public TrashNotificationBatch() {
+    }
+
+    /**
+     * Returns whether nothing is waiting to be sent.
+     *
+     * @return true when empty
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Adds a trashed quantity, merging it with any queued entry for the same item.
+     *
+     * @param itemIndex item index
+     * @param quantity quantity trashed
+     * @param sample sample stack for display
+     * @param nowMillis current time in milliseconds
+     */
+    void add(int itemIndex, int quantity, @NonNullDecl ItemStack sample, long nowMillis) {
+        AutoTrashMetrics.ITEMS_TRASHED.add(quantity);
+        if (count == 0) {
+            windowStartMillis = nowMillis;
+        }
+        for (int i = 0; i < count; i++) {
+            if (itemIndices[i] == itemIndex) {
+                totals[i] += quantity;
+                return;
+            }
+        }
+        if (count == itemIndices.length) {
+            int capacity = count * 2;
+            itemIndices = Arrays.copyOf(itemIndices, capacity);
+            totals = Arrays.copyOf(totals, capacity);
+            samples = Arrays.copyOf(samples, capacity);
+        }
+        itemIndices[count] = itemIndex;
+        totals[count] = quantity;
+        samples[count] = sample;
+        count++;
+    }
+
+    /**
+     * Drops every queued notification without sending it.
+     */
+    void clear() {
+        Arrays.fill(samples, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * Sends queued notifications once the window has elapsed, within the per-second packet cap.
+     *
+     * @param player player to notify
+     * @param nowMillis current time in milliseconds
+     * @param windowMillis aggregation window in milliseconds
+     * @param maxPacketsPerSecond packet cap per second
+     */
+    void flush(@NonNullDecl Player player, long nowMillis, long windowMillis, int maxPacketsPerSecond) {
+        if (count == 0 || nowMillis - windowStartMillis < windowMillis) {
+            return;
+        }
+        if (nowMillis - rateWindowStartMillis >= RATE_WINDOW_MILLIS) {
+            rateWindowStartMillis = nowMillis;
+            packetsInRateWindow = 0;
+        }
+        int allowance = Math.max(0, maxPacketsPerSecond - packetsInRateWindow);
+        int sent = Math.min(allowance, count);
+        for (int i = 0; i < sent; i++) {
+            AutoTrashSystem.sendTrashNotification(player, samples[i], totals[i]);
+        }
+        packetsInRateWindow += sent;
+        AutoTrashMetrics.NOTIFICATION_PACKETS.add(sent);
+
+        // Keep anything over the cap queued, in order, for the next flush.
+        int remaining = count - sent;
+        if (remaining > 0 && sent > 0) {
+            System.arraycopy(itemIndices, sent, itemIndices, 0, remaining);
+            System.arraycopy(totals, sent, totals, 0, remaining);
+            System.arraycopy(samples, sent, samples, 0, remaining);
+        }
+        Arrays.fill(samples, remaining, count, null);
+        count = remaining;
+    }
+}
@@ -0,0 +1,204 @@
+package me.clutchy.hytale.autotrash.system;
+
+import java.util.Arrays;
+
+import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
+
+import com.hypixel.hytale.server.core.inventory.ItemStack;
+
+import me.clutchy.hytale.autotrash.rule.ItemIndex;
+import me.clutchy.hytale.autotrash.rule.ItemMatcher;
+
+/**
+ * Reusable per-thread buffers for collecting trash slots and removal totals.
+ *
+ * <p>Inventory events fire on every inventory move, so the collect/remove pipeline works on primitive arrays owned by the world thread
+ * instead of allocating lists and boxed maps per event. Buffers only grow and are reset, never reallocated, between events.
+ */
+final class TrashScratch implements SlotChangeSink {
+
+    private static final ThreadLocal<TrashScratch> LOCAL = ThreadLocal.withInitial(TrashScratch::new);
+
+    /** Matcher the current event is evaluated against. */
+    ItemMatcher matcher = ItemMatcher.EMPTY;
+    /** Running item totals for keep rules, or null when the matcher has none. */
+    ItemCounts counts;
+    /** Slot indices queued for removal. */
+    short[] slots = new short[16];
+    /** Quantity to remove per queued slot, zero for the whole slot. */
+    int[] slotQuantities = new int[16];
+    /** Number of queued slots. */
+    int slotCount;
+    /** Item indices with removed quantities, in first-seen order. */
+    int[] itemIndices = new int[8];
+    /** Removed quantity per entry in {@link #itemIndices}. */
+    int[] itemTotals = new int[8];
+    /** Sample stack per entry in {@link #itemIndices}. */
+    ItemStack[] itemSamples = new ItemStack[8];
+    /** Number of tracked items. */
+    int itemCount;
+
+    private boolean inUse;
+
+    private TrashScratch() {
+    }
+
+    /**
+     * Borrows the current thread's scratch buffers, or a fresh instance when they are already in use by a re-entrant event.
+     *
+     * @param matcher compiled matcher to evaluate slots against
+     * @return cleared scratch buffers
+     */
+    @NonNullDecl
+    static TrashScratch acquire(@NonNullDecl ItemMatcher matcher) {
+        return acquire(matcher, null);
+    }
+
+    /**
+     * Borrows scratch buffers that trim keep-rule items against the player's running totals.
+     *
+     * @param matcher compiled matcher to evaluate slots against
+     * @param counts current item totals, required when the matcher has keep rules
+     * @return cleared scratch buffers
+     */
+    @NonNullDecl
+    static TrashScratch acquire(@NonNullDecl ItemMatcher matcher, ItemCounts counts) {
+        TrashScratch scratch = LOCAL.get();
+        if (scratch.inUse) {
+            scratch = new TrashScratch();
+        }
+        scratch.inUse = true;
+        scratch.matcher = matcher;
+        scratch.counts = counts;
+        return scratch;
+    }
+
+    /** Clears the buffers and returns them to the thread. */
+    void release() {
+        if (itemCount > 0) {
+            Arrays.fill(itemSamples, 0, itemCount, null);
+        }
+        slotCount = 0;
+        itemCount = 0;
+        matcher = ItemMatcher.EMPTY;
+        counts = null;
+        inUse = false;
+    }
+
+    /**
+     * Queues the slot when its new contents match and records the added quantity.
+     *
+     * @param slot slot index
+     * @param slotBefore stack before the transaction
+     * @param slotAfter stack after the transaction
+     * @return quantity added by this transaction when the slot matches
+     */
+    @Override
+    public int accept(short slot, ItemStack slotBefore, ItemStack slotAfter) {
+        if (slotAfter == null || ItemStack.isEmpty(slotAfter)) {
+            return 0;
+        }
+        int itemIndex = matcher.matchingIndex(slotAfter.getItemId());
+        if (itemIndex == ItemIndex.UNKNOWN) {
+            return 0;
+        }
+        int keepLimit = matcher.keepLimit(itemIndex);
+        if (keepLimit != ItemMatcher.NO_LIMIT) {
+            int trimmed = trimToLimit(slot, itemIndex, keepLimit, slotAfter.getQuantity());
+            if (trimmed > 0) {
+                addTotal(itemIndex, trimmed, slotAfter);
+            }
+            return trimmed;
+        }
+
+        addSlot(slot);
+        int beforeQuantity = ItemStack.isEmpty(slotBefore) ? 0 : slotBefore.getQuantity();
+        int delta = slotAfter.getQuantity() - beforeQuantity;
+        if (delta <= 0) {
+            return 0;
+        }
+
+        addTotal(itemIndex, delta, slotAfter);
+        return delta;
+    }
+
+    /** Clears queued slots while keeping per-item totals, so totals can span several containers. */
+    void clearSlots() {
+        slotCount = 0;
+    }
+
+    /**
+     * Queues a slot for removal.
+     *
+     * @param slot slot index
+     */
+    void addSlot(short slot) {
+        addSlot(slot, 0);
+    }
+
+    /**
+     * Queues part of a slot for removal.
+     *
+     * @param slot slot index
+     * @param quantity quantity to remove, zero for the whole slot
+     */
+    void addSlot(short slot, int quantity) {
+        if (slotCount == slots.length) {
+            slots = Arrays.copyOf(slots, slotCount * 2);
+            slotQuantities = Arrays.copyOf(slotQuantities, slotCount * 2);
+        }
+        slotQuantities[slotCount] = quantity;
+        slots[slotCount++] = slot;
+    }
+
+    /**
+     * Queues the part of a slot that pushes a kept item over its limit, charging it to the running total.
+     *
+     * @param slot slot index
+     * @param itemIndex item index
+     * @param keepLimit quantity to keep across the inventory
+     * @param slotQuantity quantity currently in the slot
+     * @return quantity queued for removal
+     */
+    int trimToLimit(short slot, int itemIndex, int keepLimit, int slotQuantity) {
+        if (counts == null) {
+            return 0;
+        }
+        int excess = counts.get(itemIndex) - keepLimit;
+        if (excess <= 0) {
+            return 0;
+        }
+        int trimmed = Math.min(excess, slotQuantity);
+        // Our own removal events are skipped, so the total is charged here.
+        counts.subtract(itemIndex, trimmed);
+        addSlot(slot, trimmed == slotQuantity ? 0 : trimmed);
+        AutoTrashMetrics.SLOTS_TRIMMED.increment();
+        return trimmed;
+    }
+
+    /**
+     * Adds a removed quantity for an item, keeping the first sample stack seen.
+     *
+     * @param itemIndex item index
+     * @param quantity quantity removed
+     * @param sample sample stack for notifications
+     */
+    void addTotal(int itemIndex, int quantity, @NonNullDecl ItemStack sample) {
+        for (int i = 0; i < itemCount; i++) {
+            if (itemIndices[i] == itemIndex) {
+                itemTotals[i] += quantity;
+                return;
+            }
+        }
+        if (itemCount == itemIndices.length) {
+            int capacity = itemCount * 2;
+            itemIndices = Arrays.copyOf(itemIndices, capacity);
+            itemTotals = Arrays.copyOf(itemTotals, capacity);
+            itemSamples = Arrays.copyOf(itemSamples, capacity);
+        }
+        itemIndices[itemCount] = itemIndex;
+        itemTotals[itemCount] = quantity;
+        itemSamples[itemCount] = sample;
+        itemCount++;
+    }
+}
@@ -1,7 +1,6 @@
 package me.clutchy.hytale.autotrash.ui;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 import org.checkerframework.checker.nullness.compatqual.NonNullDecl;
@@ -16,6 +15,7 @@ import com.hypixel.hytale.server.core.Message;
 import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.entity.entities.player.pages.InteractiveCustomUIPage;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.modules.item.ItemModule;
 import com.hypixel.hytale.server.core.ui.DropdownEntryInfo;
 import com.hypixel.hytale.server.core.ui.LocalizableString;
 import com.hypixel.hytale.server.core.ui.builder.EventData;
@@ -24,8 +24,12 @@ import com.hypixel.hytale.server.core.ui.builder.UIEventBuilder;
 import com.hypixel.hytale.server.core.universe.PlayerRef;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
+import me.clutchy.hytale.autotrash.config.RuntimeConfig;
+import me.clutchy.hytale.autotrash.rule.ItemSearchIndex;
 import me.clutchy.hytale.autotrash.settings.AutoTrashPlayerSettings;
+import me.clutchy.hytale.autotrash.system.AutoTrashMetrics;
 import me.clutchy.hytale.autotrash.system.AutoTrashSystem;
+import me.clutchy.hytale.autotrash.system.InventoryScan;
 
 /**
  * UI page for configuring auto-trash settings.
@@ -35,9 +39,21 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
     /** Component type used for player settings. */
     private final ComponentType<EntityStore, AutoTrashPlayerSettings> settingsComponentType;
 
+    /** Search result slots shown per page. */
+    private static final int SEARCH_PAGE_SIZE = 16;
+
     /** Cached settings component for the player. */
     private AutoTrashPlayerSettings playerSettings;
 
+    /** Current item search text, empty when no search is active. */
+    private String searchQuery = "";
+
+    /** Zero-based page of the current item search. */
+    private int searchPage;
+
+    /** Whether the last rendered search page had more matches after it. */
+    private boolean searchHasMore;
+
     /**
      * Creates the configuration page.
      *
@@ -67,11 +83,12 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
 
         buildProfileDropdown(commandBuilder, this.playerSettings);
         commandBuilder.set("#ProfileNameInput.Value", "");
-        commandBuilder.set("#ProfileCount.Text", "Profiles: " + this.playerSettings.getProfileCount() + "/" + AutoTrashPlayerSettings.MAX_PROFILES);
+        commandBuilder.set("#ProfileCount.Text", "Profiles: " + this.playerSettings.getProfileCount() + "/" + RuntimeConfig.current().getMaxProfiles());
         commandBuilder.set("#ProfileWarning.Visible", this.playerSettings.isProfileLimitReached());
         commandBuilder.set("#EnabledRow #CheckBox.Value", this.playerSettings.isEnabled());
         commandBuilder.set("#NotifyRow #CheckBox.Value", this.playerSettings.isNotify());
         buildFilterList(commandBuilder, profile.getExactItems());
+        commandBuilder.set("#SearchInput.Value", this.searchQuery);
 
         eventBuilder.addEventBinding(CustomUIEventBindingType.ValueChanged, "#ProfileDropdown",
                 EventData.of(PageEventData.KEY_ACTION, PageEventData.ACTION_SWITCH_PROFILE).append(PageEventData.KEY_PROFILE, "#ProfileDropdown.Value"), false);
@@ -90,8 +107,15 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
         eventBuilder.addEventBinding(CustomUIEventBindingType.ValueChanged, "#NotifyRow #CheckBox",
                 EventData.of(PageEventData.KEY_ACTION, PageEventData.ACTION_TOGGLE_NOTIFY).append(PageEventData.KEY_VALUE, "#NotifyRow #CheckBox.Value"), false);
         eventBuilder.addEventBinding(CustomUIEventBindingType.Activating, "#ItemAddButton", EventData.of(PageEventData.KEY_ACTION, PageEventData.ACTION_ADD_EXACT));
+        eventBuilder.addEventBinding(CustomUIEventBindingType.Activating, "#SearchButton",
+                EventData.of(PageEventData.KEY_ACTION, PageEventData.ACTION_SEARCH).append(PageEventData.KEY_QUERY, "#SearchInput.Value"), false);
+        eventBuilder.addEventBinding(CustomUIEventBindingType.Activating, "#SearchPrevButton",
+                EventData.of(PageEventData.KEY_ACTION, PageEventData.ACTION_SEARCH_PREVIOUS), false);
+        eventBuilder.addEventBinding(CustomUIEventBindingType.Activating, "#SearchNextButton",
+                EventData.of(PageEventData.KEY_ACTION, PageEventData.ACTION_SEARCH_NEXT), false);
 
         rebuildListBindings(eventBuilder, profile);
+        buildSearchResults(commandBuilder, eventBuilder);
     }
 
     /**
@@ -147,7 +171,7 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
                 changed = handleProfileAction(player, result, target);
             }
             case PageEventData.ACTION_SCAN_INVENTORY -> {
-                handleInventoryScan(player, profile);
+                handleInventoryScan(player);
                 changed = true;
             }
             case PageEventData.ACTION_TOGGLE_ENABLED -> {
@@ -171,11 +195,10 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
                     rebuild();
                     return;
                 }
-                String itemId = held.getItemId();
-                String[] current = profile.getExactItems();
-                String[] updated = updateArray(current, true, itemId);
-                if (updated != current) {
-                    profile.setExactItems(updated);
+                if (refuseReadOnly(player)) {
+                    return;
+                }
+                if (this.playerSettings.addExactItem(held.getItemId())) {
                     changed = true;
                 }
                 if (this.playerSettings.isEnabled()) {
@@ -192,11 +215,44 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
                     rebuild();
                     return;
                 }
-                String[] current = profile.getExactItems();
-                String[] updated = updateArray(current, false, itemId);
-                if (updated != current) {
-                    profile.setExactItems(updated);
+                if (refuseReadOnly(player)) {
+                    return;
+                }
+                if (this.playerSettings.removeExactItem(itemId)) {
+                    changed = true;
+                }
+            }
+            case PageEventData.ACTION_SEARCH -> {
+                this.searchQuery = data.query == null ? "" : data.query.trim();
+                this.searchPage = 0;
+                changed = true;
+            }
+            case PageEventData.ACTION_SEARCH_PREVIOUS -> {
+                if (this.searchPage > 0) {
+                    this.searchPage--;
+                    changed = true;
+                }
+            }
+            case PageEventData.ACTION_SEARCH_NEXT -> {
+                if (this.searchHasMore) {
+                    this.searchPage++;
+                    changed = true;
+                }
+            }
+            case PageEventData.ACTION_ADD_SEARCH -> {
+                String itemId = data.itemId;
+                if (itemId == null || itemId.isBlank() || !ItemModule.exists(itemId)) {
+                    player.sendMessage(Message.raw("That item is no longer registered."));
+                    rebuild();
+                    return;
+                }
+                if (refuseReadOnly(player)) {
+                    return;
+                }
+                if (this.playerSettings.addExactItem(itemId)) {
                     changed = true;
+                } else {
+                    player.sendMessage(Message.raw("That item is already in your auto-trash list."));
                 }
             }
             default -> {
@@ -227,6 +283,44 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
         }
     }
 
+    /**
+     * Builds one page of item search results and binds each slot to add its item.
+     *
+     * @param commandBuilder UI command builder
+     * @param eventBuilder UI event builder
+     */
+    private void buildSearchResults(@NonNullDecl UICommandBuilder commandBuilder, @NonNullDecl UIEventBuilder eventBuilder) {
+        ItemSearchIndex.Page results = ItemSearchIndex.Page.EMPTY;
+        if (!this.searchQuery.isEmpty()) {
+            long start = System.nanoTime();
+            results = ItemSearchIndex.search(this.searchQuery, this.searchPage * SEARCH_PAGE_SIZE, SEARCH_PAGE_SIZE);
+            AutoTrashMetrics.recordItemSearch(System.nanoTime() - start);
+        }
+        this.searchHasMore = results.hasMore();
+
+        int index = 0;
+        for (String itemId : results.getItemIds()) {
+            String rowSelector = "#SearchGrid[" + index + "]";
+            commandBuilder.append("#SearchGrid", "Pages/AutoTrashItemSlotRow.ui");
+            commandBuilder.set(rowSelector + " #ItemSlot.ItemId", itemId);
+            eventBuilder.addEventBinding(CustomUIEventBindingType.Activating, rowSelector,
+                    EventData.of(PageEventData.KEY_ACTION, PageEventData.ACTION_ADD_SEARCH).append(PageEventData.KEY_ITEM, itemId), false);
+            index++;
+        }
+
+        String status;
+        if (this.searchQuery.isEmpty()) {
+            status = "Type part of an item id or name and press search. Click a result to add it.";
+        } else if (results.getItemIds().isEmpty()) {
+            status = this.searchPage == 0 ? "No items match \"" + this.searchQuery + "\"." : "No more results.";
+        } else {
+            status = "Page " + (this.searchPage + 1) + " for \"" + this.searchQuery + "\". Click a result to add it.";
+        }
+        commandBuilder.set("#SearchStatus.Text", status);
+        commandBuilder.set("#SearchPrevButton.Visible", this.searchPage > 0);
+        commandBuilder.set("#SearchNextButton.Visible", this.searchHasMore);
+    }
+
     /**
      * Builds the profile dropdown entries and selection.
      *
@@ -242,6 +336,21 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
         commandBuilder.set("#ProfileDropdown.Value", settings.getActiveProfileName());
     }
 
+    /**
+     * Tells the player their active profile cannot be edited when its stored data could not be read.
+     *
+     * @param player player editing the page
+     * @return true when the edit must be skipped
+     */
+    private boolean refuseReadOnly(@NonNullDecl Player player) {
+        if (!this.playerSettings.isActiveProfileReadOnly()) {
+            return false;
+        }
+        player.sendMessage(Message.raw("Your AutoTrash profile could not be read, so it cannot be changed until the stored data is repaired."));
+        rebuild();
+        return true;
+    }
+
     private boolean handleProfileAction(@NonNullDecl Player player, @NonNullDecl AutoTrashPlayerSettings.ProfileActionResult result,
             @NonNullDecl String profileName) {
         String displayName = profileName.isBlank() ? "profile" : "\"" + profileName + "\"";
@@ -267,34 +376,21 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
             case AutoTrashPlayerSettings.ProfileActionResult.NAME_EMPTY -> player.sendMessage(Message.raw("Enter a profile name."));
             case AutoTrashPlayerSettings.ProfileActionResult.NOT_FOUND -> player.sendMessage(Message.raw("Profile not found."));
             case AutoTrashPlayerSettings.ProfileActionResult.LAST_PROFILE -> player.sendMessage(Message.raw("You must keep at least one profile."));
+            case AutoTrashPlayerSettings.ProfileActionResult.UNREADABLE -> player.sendMessage(Message.raw("Your AutoTrash profile could not be read, so it cannot be changed until the stored data is repaired."));
             default -> {
             }
         }
         return false;
     }
 
-    private void handleInventoryScan(@NonNullDecl Player player, @NonNullDecl AutoTrashPlayerSettings.AutoTrashProfile profile) {
-        List<Short> slotsToRemove = new ArrayList<>();
-        player.getInventory().getCombinedEverything().forEach((slot, stack) -> {
-            if (stack == null || ItemStack.isEmpty(stack)) {
-                return;
-            }
-            String itemId = stack.getItemId();
-            for (String exactItem : profile.getExactItems()) {
-                if (itemId.equals(exactItem)) {
-                    slotsToRemove.add(slot);
-                    break;
-                }
-            }
-        });
-        if (slotsToRemove.isEmpty()) {
+    private void handleInventoryScan(@NonNullDecl Player player) {
+        InventoryScan.Result result = AutoTrashSystem.scanInventory(player, this.playerSettings, false);
+        if (result.isEmpty()) {
             player.sendMessage(Message.raw("No inventory items matched this profile."));
             return;
         }
-        for (short slot : slotsToRemove) {
-            player.getInventory().getCombinedEverything().removeItemStackFromSlot(slot);
-        }
-        player.sendMessage(Message.raw("Removed " + slotsToRemove.size() + " items from inventory using this profile."));
+        player.sendMessage(Message.raw("Removed " + result.getTotalQuantity() + " items from " + result.getSlotCount() + " slots using this profile: "
+                + result.describeEntries()));
     }
 
     /**
@@ -307,31 +403,6 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
         AutoTrashSystem.sendTrashNotification(player, itemStack);
     }
 
-    /**
-     * Updates an array of item ids by adding or removing a target.
-     *
-     * @param values current values
-     * @param add true to add, false to remove
-     * @param itemId item id to update
-     * @return updated array
-     */
-    private String[] updateArray(@NonNullDecl String[] values, boolean add, @NonNullDecl String itemId) {
-        List<String> items = toMutableList(values);
-        boolean changed = false;
-        if (add) {
-            if (!items.contains(itemId)) {
-                items.add(itemId);
-                changed = true;
-            }
-        } else {
-            changed = items.remove(itemId);
-        }
-        if (!changed) {
-            return values;
-        }
-        return items.toArray(String[]::new);
-    }
-
     /**
      * Rebuilds UI event bindings for the list of configured items.
      *
@@ -351,16 +422,6 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
         }
     }
 
-    /**
-     * Converts an array to a mutable list.
-     *
-     * @param values array to convert
-     * @return mutable list of values
-     */
-    private static List<String> toMutableList(String[] values) {
-        return new ArrayList<>(Arrays.asList(values));
-    }
-
     /**
      * Event payload for the UI page.
      */
@@ -387,6 +448,10 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
          * Payload key for profile names.
          */
         public static final String KEY_PROFILE = "@Profile";
+        /**
+         * Payload key for item search text.
+         */
+        public static final String KEY_QUERY = "@Query";
         /**
          * Action id for toggling the enabled setting.
          */
@@ -427,6 +492,22 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
          * Action id for scanning inventory.
          */
         public static final String ACTION_SCAN_INVENTORY = "ScanInventory";
+        /**
+         * Action id for starting an item search.
+         */
+        public static final String ACTION_SEARCH = "Search";
+        /**
+         * Action id for showing the previous page of search results.
+         */
+        public static final String ACTION_SEARCH_PREVIOUS = "SearchPrevious";
+        /**
+         * Action id for showing the next page of search results.
+         */
+        public static final String ACTION_SEARCH_NEXT = "SearchNext";
+        /**
+         * Action id for adding an item picked from search results.
+         */
+        public static final String ACTION_ADD_SEARCH = "AddSearch";
 
         /**
          * Codec for serializing UI event data payloads.
@@ -440,6 +521,8 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
                 .add()
                 .append(new KeyedCodec<>(KEY_PROFILE, Codec.STRING), (data, value) -> data.profileName = value, data -> data.profileName)
                 .add()
+                .append(new KeyedCodec<>(KEY_QUERY, Codec.STRING), (data, value) -> data.query = value, data -> data.query)
+                .add()
                 .append(new KeyedCodec<>(KEY_ITEM.toUpperCase(), Codec.STRING), (data, value) -> {
                     if (data.itemId == null || data.itemId.isBlank()) {
                         data.itemId = value;
@@ -452,6 +535,12 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
                     }
                 }, _ -> null)
                 .add()
+                .append(new KeyedCodec<>(KEY_QUERY.toUpperCase(), Codec.STRING), (data, value) -> {
+                    if (data.query == null || data.query.isBlank()) {
+                        data.query = value;
+                    }
+                }, _ -> null)
+                .add()
                 .build();
 
         /**
@@ -470,5 +559,9 @@ public final class AutoTrashConfigPage extends InteractiveCustomUIPage<AutoTrash
          * Incoming profile name, if present.
          */
         public String profileName;
+        /**
+         * Incoming item search text, if present.
+         */
+        public String query;
     }
 }